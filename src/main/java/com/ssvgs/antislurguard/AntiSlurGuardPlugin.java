@@ -6,29 +6,40 @@ import java.util.UUID;
 import java.util.logging.Logger;
 
 import org.bukkit.Bukkit;
-import org.bukkit.OfflinePlayer;
 import org.bukkit.configuration.file.FileConfiguration;
-import org.bukkit.entity.Player;
 import org.bukkit.event.HandlerList;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.scheduler.BukkitTask;
 
 import com.biggiko.antislurguard.announcements.AnnouncementService;
 import com.biggiko.antislurguard.antispam.AntiSpamService;
+import com.biggiko.antislurguard.antispam.GlobalFloodDetector;
+import com.biggiko.antislurguard.antispam.GlobalSlowmodeService;
+import com.biggiko.antislurguard.bypass.BypassService;
 import com.biggiko.antislurguard.command.AsgCommand;
 import com.biggiko.antislurguard.config.Config;
 import com.biggiko.antislurguard.config.LocalizedConfigWriter;
+import com.biggiko.antislurguard.dispatch.ModerationDispatcher;
 import com.biggiko.antislurguard.language.LanguageBundle;
 import com.biggiko.antislurguard.language.LanguageBundleProvider;
 import com.biggiko.antislurguard.listener.ChatFilterListener;
 import com.biggiko.antislurguard.listener.NameBlockerListener;
+import com.biggiko.antislurguard.listener.PlayerSessionListener;
 import com.biggiko.antislurguard.management.PlayerManagementService;
 import com.biggiko.antislurguard.messages.Messages;
+import com.biggiko.antislurguard.messages.TemplateEngine;
 import com.biggiko.antislurguard.normalization.NormalizationService;
 import com.biggiko.antislurguard.notification.AdminNotificationService;
+import com.biggiko.antislurguard.pattern.CrossMessageTracker;
 import com.biggiko.antislurguard.pattern.ExceptionStore;
+import com.biggiko.antislurguard.pattern.FilterVerdict;
 import com.biggiko.antislurguard.pattern.PatternStore;
+import com.biggiko.antislurguard.pattern.VerdictCache;
+import com.biggiko.antislurguard.punishment.BanWriter;
+import com.biggiko.antislurguard.punishment.KnownBadNames;
+import com.biggiko.antislurguard.punishment.MuteStore;
 import com.biggiko.antislurguard.punishment.PunishmentService;
+import com.biggiko.antislurguard.raid.RaidModeService;
 import com.biggiko.antislurguard.runtime.RuntimeSettingsService;
 import com.biggiko.antislurguard.stats.PlayerStatsService;
 import com.biggiko.antislurguard.stats.StatsService;
@@ -39,7 +50,12 @@ public final class AntiSlurGuardPlugin extends JavaPlugin {
     private Config config;
     private PatternStore patternStore;
     private ExceptionStore exceptionStore;
+    private VerdictCache<FilterVerdict> verdictCache;
+    private VerdictCache<FilterVerdict> nameVerdictCache;
+    private KnownBadNames knownBadNames;
+    private CrossMessageTracker crossMessageTracker;
     private Messages messages;
+    private TemplateEngine templates;
     private NormalizationService normalizationService;
     private StatsService statsService;
     private PunishmentService punishmentService;
@@ -47,9 +63,16 @@ public final class AntiSlurGuardPlugin extends JavaPlugin {
     private PlayerStatsService playerStatsService;
     private UserViolationLogService userViolationLogService;
     private AntiSpamService antiSpamService;
+    private GlobalFloodDetector floodDetector;
+    private GlobalSlowmodeService globalSlowmode;
     private RuntimeSettingsService runtimeSettingsService;
     private PlayerManagementService playerManagementService;
     private AnnouncementService announcementService;
+    private BypassService bypassService;
+    private ModerationDispatcher dispatcher;
+    private RaidModeService raidModeService;
+    private BanWriter banWriter;
+    private MuteStore muteStore;
     private LanguageBundle languageBundle;
     private LanguageBundleProvider languageProvider;
     private BukkitTask aggregateTask;
@@ -67,6 +90,8 @@ public final class AntiSlurGuardPlugin extends JavaPlugin {
         logBiggikoBanner();
         this.statsService = new StatsService();
         reloadConfiguration();
+        this.dispatcher = new ModerationDispatcher(this, config.performance().dispatchBudgetMicros());
+        this.dispatcher.start();
         registerListeners();
         registerCommands();
         scheduleAggregation();
@@ -81,7 +106,37 @@ public final class AntiSlurGuardPlugin extends JavaPlugin {
         if (announcementService != null) {
             announcementService.cancelAll();
         }
+        if (bypassService != null) {
+            bypassService.cancel();
+        }
+        if (adminNotificationService != null) {
+            adminNotificationService.cancelAggregation();
+        }
+        if (raidModeService != null) {
+            raidModeService.cancel();
+        }
+        if (knownBadNames != null) {
+            knownBadNames.cancel();
+        }
+        if (antiSpamService != null) {
+            antiSpamService.cancel();
+        }
+        if (globalSlowmode != null) {
+            globalSlowmode.cancel();
+        }
         HandlerList.unregisterAll(this);
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+        if (banWriter != null) {
+            banWriter.shutdown();
+        }
+        if (playerStatsService != null) {
+            playerStatsService.shutdown();
+        }
+        if (muteStore != null) {
+            muteStore.shutdown();
+        }
     }
 
     public void reloadConfiguration() {
@@ -89,12 +144,41 @@ public final class AntiSlurGuardPlugin extends JavaPlugin {
         if (announcementService != null) {
             announcementService.cancelAll();
         }
+        if (bypassService != null) {
+            bypassService.cancel();
+        }
+        if (adminNotificationService != null) {
+            adminNotificationService.cancelAggregation();
+        }
+        if (raidModeService != null) {
+            raidModeService.cancel();
+        }
+        if (knownBadNames != null) {
+            knownBadNames.cancel();
+        }
+        if (banWriter != null) {
+            banWriter.shutdown();
+        }
+        if (antiSpamService != null) {
+            antiSpamService.cancel();
+        }
+        if (globalSlowmode != null) {
+            globalSlowmode.cancel();
+        }
+        if (playerStatsService != null) {
+            playerStatsService.shutdown();
+        }
+        if (muteStore != null) {
+            muteStore.shutdown();
+        }
         FileConfiguration fileConfig = getConfig();
         this.config = Config.from(fileConfig);
         this.languageProvider = new LanguageBundleProvider(this, Path.of(config.paths().languagesDir()));
         this.languageBundle = languageProvider.load(config.lang());
         new LocalizedConfigWriter(this).write(config, languageBundle);
-        this.messages = new Messages(this, Path.of(config.paths().messagesFile()));
+        this.templates = new TemplateEngine();
+        this.templates.precompileCommands(config);
+        this.messages = new Messages(this, Path.of(config.paths().messagesFile()), templates);
         this.messages.reload(languageBundle);
         this.normalizationService = new NormalizationService(config.normalize());
         this.patternStore = new PatternStore(this, Path.of(config.paths().patternsFile()), normalizationService,
@@ -103,23 +187,50 @@ public final class AntiSlurGuardPlugin extends JavaPlugin {
                 config.patternOptions());
         this.patternStore.reload();
         this.exceptionStore.reload();
+        this.verdictCache = new VerdictCache<>(config.performance().verdictCacheSize());
+        this.nameVerdictCache = new VerdictCache<>(config.performance().nameCacheSize());
+        this.knownBadNames = new KnownBadNames(this, Path.of(config.paths().knownBadNamesFile()));
+        this.knownBadNames.load();
+        this.knownBadNames.start();
+        this.crossMessageTracker = new CrossMessageTracker(patternStore, exceptionStore,
+                config.patternOptions().crossMessage(), config.antiSpam().repeatWindowSeconds());
         this.runtimeSettingsService = new RuntimeSettingsService(this, Path.of(config.paths().runtimeSettingsFile()));
         this.punishmentService = new PunishmentService(this);
+        this.banWriter = new BanWriter(this, config.performance().banWritesPerTick());
+        this.banWriter.start();
+        this.muteStore = new MuteStore(this, Path.of(config.paths().mutesFile()));
+        this.muteStore.load();
         this.adminNotificationService = new AdminNotificationService(this, Path.of(config.paths().adminNotifyFile()));
+        this.adminNotificationService.startAggregation();
         this.playerStatsService = new PlayerStatsService(this, Path.of(config.paths().playerStatsFile()),
+                Path.of(config.paths().playerStatsDir()), Path.of(config.paths().playerStatsJournalFile()),
+                Path.of(config.paths().playerNameIndexFile()),
                 config.stats());
         this.userViolationLogService = new UserViolationLogService(this, Path.of(config.paths().userDataDir()));
-        this.antiSpamService = new AntiSpamService(config.antiSpam());
+        this.globalSlowmode = new GlobalSlowmodeService(this, config.antiSpam().globalSlowmode());
+        this.globalSlowmode.start();
+        this.antiSpamService = new AntiSpamService(this, config.antiSpam(), globalSlowmode);
+        this.antiSpamService.start();
+        this.floodDetector = new GlobalFloodDetector(config.antiSpam().globalFlood());
         this.playerManagementService = new PlayerManagementService(this);
         this.announcementService = new AnnouncementService(this, Path.of(config.paths().announcementsFile()),
                 config.announcements());
         this.announcementService.reload();
+        this.bypassService = new BypassService(this, config.permissions().bypass(),
+                config.performance().bypassRefreshSeconds());
+        this.bypassService.start();
+        this.raidModeService = new RaidModeService(this, config.raidMode());
+        this.raidModeService.start();
+        if (dispatcher != null) {
+            dispatcher.setBudget(config.performance().dispatchBudgetMicros());
+        }
     }
 
     private void registerListeners() {
         HandlerList.unregisterAll(this);
         Bukkit.getPluginManager().registerEvents(new NameBlockerListener(this), this);
         Bukkit.getPluginManager().registerEvents(new ChatFilterListener(this), this);
+        Bukkit.getPluginManager().registerEvents(new PlayerSessionListener(this), this);
     }
 
     private void registerCommands() {
@@ -167,10 +278,30 @@ public final class AntiSlurGuardPlugin extends JavaPlugin {
         return exceptionStore;
     }
 
+    public VerdictCache<FilterVerdict> verdictCache() {
+        return verdictCache;
+    }
+
+    public VerdictCache<FilterVerdict> nameVerdictCache() {
+        return nameVerdictCache;
+    }
+
+    public KnownBadNames knownBadNames() {
+        return knownBadNames;
+    }
+
+    public CrossMessageTracker crossMessageTracker() {
+        return crossMessageTracker;
+    }
+
     public Messages messages() {
         return messages;
     }
 
+    public TemplateEngine templates() {
+        return templates;
+    }
+
     public NormalizationService normalizationService() {
         return normalizationService;
     }
@@ -199,6 +330,14 @@ public final class AntiSlurGuardPlugin extends JavaPlugin {
         return antiSpamService;
     }
 
+    public GlobalFloodDetector floodDetector() {
+        return floodDetector;
+    }
+
+    public GlobalSlowmodeService globalSlowmode() {
+        return globalSlowmode;
+    }
+
     public RuntimeSettingsService runtimeSettings() {
         return runtimeSettingsService;
     }
@@ -214,31 +353,27 @@ public final class AntiSlurGuardPlugin extends JavaPlugin {
         getLogger().info("AntiSlurGuard configuration reloaded.");
     }
 
+    public ModerationDispatcher dispatcher() {
+        return dispatcher;
+    }
+
+    public MuteStore muteStore() {
+        return muteStore;
+    }
+
+    public BanWriter banWriter() {
+        return banWriter;
+    }
+
+    public RaidModeService raidMode() {
+        return raidModeService;
+    }
+
+    public BypassService bypassService() {
+        return bypassService;
+    }
+
     public boolean hasBypass(UUID uniqueId, String name) {
-        String permission = config.permissions().bypass();
-        if (permission == null || permission.isBlank()) {
-            return false;
-        }
-        if (uniqueId != null) {
-            Player online = Bukkit.getPlayer(uniqueId);
-            if (online != null && online.hasPermission(permission)) {
-                return true;
-            }
-            OfflinePlayer offline = Bukkit.getOfflinePlayer(uniqueId);
-            if (offline != null && offline.isOp()) {
-                return true;
-            }
-        }
-        if (name != null && !name.isBlank()) {
-            Player onlineByName = Bukkit.getPlayerExact(name);
-            if (onlineByName != null && onlineByName.hasPermission(permission)) {
-                return true;
-            }
-            OfflinePlayer offlineByName = Bukkit.getOfflinePlayer(name);
-            if (offlineByName != null && offlineByName.isOp()) {
-                return true;
-            }
-        }
-        return false;
+        return bypassService.hasBypass(uniqueId, name);
     }
 }
@@ -1,79 +1,205 @@
 package com.biggiko.antislurguard.antispam;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import com.biggiko.antislurguard.AntiSlurGuardPlugin;
 import com.biggiko.antislurguard.config.Config;
+import com.biggiko.antislurguard.normalization.MessageFeatures;
+import com.biggiko.antislurguard.normalization.SimHash;
 
 public final class AntiSpamService {
 
-    private final Config.AntiSpamSettings settings;
-    private final Map<UUID, PlayerState> states = new ConcurrentHashMap<>();
+    private static final long SWEEP_INTERVAL_TICKS = 60L * 20L;
+    private static final int MAX_HISTORY = 16;
+    private static final CheckResult ALLOWED = new CheckResult(false, Reason.NONE, 0L, 0L, 0L);
+    private static final CheckResult CAPS_BLOCKED = new CheckResult(true, Reason.CAPS, 0L, 0L, 0L);
+    private static final CheckResult CHAR_FLOOD_BLOCKED = new CheckResult(true, Reason.CHAR_FLOOD, 0L, 0L, 0L);
+
+    private final AntiSlurGuardPlugin plugin;
+    private final GlobalSlowmodeService globalSlowmode;
+    private final boolean enabled;
+    private final long repeatWindowMillis;
+    private final long cooldownMillis;
+    private final long slowmodeDurationMillis;
+    private final int repeatThreshold;
+    private final int similarityBits;
+    private final int historySize;
+    private final int capsMinLetters;
+    private final int capsMaxPercent;
+    private final int maxCharRun;
+    private final long durationSeconds;
+    private final long cooldownSeconds;
+    private final Map<UUID, PlayerSlot> states = new ConcurrentHashMap<>();
+    private BukkitTask sweepTask;
+
+    public AntiSpamService(AntiSlurGuardPlugin plugin, Config.AntiSpamSettings settings,
+            GlobalSlowmodeService globalSlowmode) {
+        this.plugin = plugin;
+        this.globalSlowmode = globalSlowmode;
+        this.enabled = settings.enabled();
+        this.repeatWindowMillis = Math.max(0L, settings.repeatWindowSeconds() * 1000L);
+        this.cooldownMillis = Math.max(0L, settings.slowmodeCooldownSeconds() * 1000L);
+        this.slowmodeDurationMillis = Math.max(0L, settings.slowmodeDurationSeconds() * 1000L);
+        this.repeatThreshold = Math.max(1, settings.repeatThreshold());
+        this.similarityBits = Math.max(0, Math.min(64, settings.similarityBits()));
+        this.historySize = Math.max(1, Math.min(MAX_HISTORY, settings.historySize()));
+        this.capsMinLetters = settings.caps().enabled() ? settings.caps().minLetters() : Integer.MAX_VALUE;
+        this.capsMaxPercent = settings.caps().maxUppercasePercent();
+        this.maxCharRun = settings.charFlood().enabled() ? settings.charFlood().maxRun() : Integer.MAX_VALUE;
+        this.durationSeconds = Math.max(1L, settings.slowmodeDurationSeconds());
+        this.cooldownSeconds = Math.max(1L, settings.slowmodeCooldownSeconds());
+    }
+
+    public void start() {
+        cancel();
+        sweepTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin,
+                () -> sweep(System.currentTimeMillis()), SWEEP_INTERVAL_TICKS, SWEEP_INTERVAL_TICKS);
+    }
+
+    public void cancel() {
+        if (sweepTask != null) {
+            sweepTask.cancel();
+            sweepTask = null;
+        }
+    }
+
+    /**
+     * Drops the player's state on quit unless a slowmode is still running, so leaving cannot be used to
+     * skip it; those entries are collected by the periodic sweep once they expire.
+     */
+    public void forget(UUID uuid) {
+        PlayerSlot slot = uuid != null ? states.get(uuid) : null;
+        if (slot != null) {
+            evictIf(uuid, slot, System.currentTimeMillis(), false);
+        }
+    }
 
-    public AntiSpamService(Config.AntiSpamSettings settings) {
-        this.settings = settings;
+    public int trackedPlayers() {
+        return states.size();
     }
 
-    public CheckResult evaluate(UUID uuid, String normalizedMessage, long nowMillis) {
-        if (!settings.enabled() || uuid == null) {
-            return CheckResult.allow();
+    private void sweep(long nowMillis) {
+        for (Map.Entry<UUID, PlayerSlot> entry : states.entrySet()) {
+            evictIf(entry.getKey(), entry.getValue(), nowMillis, true);
         }
-        String normalized = normalizedMessage == null ? "" : normalizedMessage;
-        PlayerState state = states.computeIfAbsent(uuid, id -> new PlayerState());
-        synchronized (state) {
-            if (state.slowmodeUntil > 0 && nowMillis >= state.slowmodeUntil) {
-                state.slowmodeUntil = 0L;
+    }
+
+    private void evictIf(UUID uuid, PlayerSlot slot, long nowMillis, boolean requireIdle) {
+        while (true) {
+            PlayerState current = slot.state;
+            if (current == PlayerState.EVICTED || current.slowmodeUntil() > nowMillis) {
+                return;
             }
-            long cooldownMillis = Math.max(0L, settings.slowmodeCooldownSeconds() * 1000L);
-            if (state.slowmodeUntil > nowMillis && cooldownMillis > 0 && state.lastAllowedAt > 0L) {
-                long sinceLastAllowed = nowMillis - state.lastAllowedAt;
-                if (sinceLastAllowed < cooldownMillis) {
-                    long remainingMillis = cooldownMillis - sinceLastAllowed;
-                    long remainingSeconds = Math.max(1L, (remainingMillis + 999) / 1000);
-                    state.lastMessageAt = nowMillis;
-                    state.lastNormalizedMessage = normalized;
-                    return CheckResult.cooldown(remainingSeconds);
-                }
+            if (requireIdle && nowMillis - current.lastMessageAt() <= repeatWindowMillis) {
+                return;
             }
-            long repeatWindowMillis = Math.max(0L, settings.repeatWindowSeconds() * 1000L);
-            if (state.lastNormalizedMessage != null
-                    && state.lastNormalizedMessage.equals(normalized)
-                    && (nowMillis - state.lastMessageAt) <= repeatWindowMillis) {
-                state.repeatCount++;
-            } else {
-                state.repeatCount = 1;
+            if (slot.compareAndSet(current, PlayerState.EVICTED)) {
+                states.remove(uuid, slot);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Lock-free: each attempt derives the next immutable state from the current one and publishes it
+     * with a single compare-and-set, retrying only when another chat thread won the race for the same
+     * player.
+     */
+    public CheckResult evaluate(UUID uuid, MessageFeatures features, long nowMillis) {
+        if (!enabled || uuid == null) {
+            return ALLOWED;
+        }
+        globalSlowmode.record();
+        if (features.letters() >= capsMinLetters && features.uppercasePercent() > capsMaxPercent) {
+            return CAPS_BLOCKED;
+        }
+        if (features.longestRun() > maxCharRun) {
+            return CHAR_FLOOD_BLOCKED;
+        }
+        long fingerprint = features.fingerprint();
+        long globalCooldownMillis = globalSlowmode.cooldownMillis();
+        while (true) {
+            PlayerSlot slot = states.computeIfAbsent(uuid, id -> new PlayerSlot());
+            while (true) {
+                PlayerState current = slot.state;
+                if (current == PlayerState.EVICTED) {
+                    break;
+                }
+                Transition transition = next(current, fingerprint, globalCooldownMillis, nowMillis);
+                if (slot.compareAndSet(current, transition.state())) {
+                    return transition.result();
+                }
             }
-            state.lastMessageAt = nowMillis;
-            state.lastNormalizedMessage = normalized;
-
-            int threshold = Math.max(1, settings.repeatThreshold());
-            long slowmodeDurationMillis = Math.max(0L, settings.slowmodeDurationSeconds() * 1000L);
-            if (slowmodeDurationMillis > 0L && state.repeatCount >= threshold) {
-                state.repeatCount = 0;
-                state.slowmodeUntil = nowMillis + slowmodeDurationMillis;
-                state.lastAllowedAt = 0L;
-                long durationSeconds = Math.max(1L, settings.slowmodeDurationSeconds());
-                long cooldownSeconds = Math.max(1L, settings.slowmodeCooldownSeconds());
-                return CheckResult.triggered(durationSeconds, cooldownSeconds);
+        }
+    }
+
+    private Transition next(PlayerState state, long fingerprint, long globalCooldownMillis, long nowMillis) {
+        long slowmodeUntil = state.slowmodeUntil() > 0L && nowMillis >= state.slowmodeUntil()
+                ? 0L
+                : state.slowmodeUntil();
+        long effectiveCooldownMillis = slowmodeUntil > nowMillis
+                ? Math.max(cooldownMillis, globalCooldownMillis)
+                : globalCooldownMillis;
+        if (effectiveCooldownMillis > 0L && state.lastAllowedAt() > 0L) {
+            long sinceLastAllowed = nowMillis - state.lastAllowedAt();
+            if (sinceLastAllowed < effectiveCooldownMillis) {
+                long remainingMillis = effectiveCooldownMillis - sinceLastAllowed;
+                long remainingSeconds = Math.max(1L, (remainingMillis + 999) / 1000);
+                return new Transition(state.remember(fingerprint, nowMillis, historySize, state.lastAllowedAt(),
+                        slowmodeUntil, state.repeatCount()), CheckResult.cooldown(remainingSeconds));
             }
+        }
+        int repeatCount = isRepeat(state, fingerprint, nowMillis) ? state.repeatCount() + 1 : 1;
+
+        if (slowmodeDurationMillis > 0L && repeatCount >= repeatThreshold) {
+            return new Transition(state.remember(fingerprint, nowMillis, historySize, 0L,
+                    nowMillis + slowmodeDurationMillis, 0), CheckResult.triggered(durationSeconds, cooldownSeconds));
+        }
+        return new Transition(state.remember(fingerprint, nowMillis, historySize, nowMillis, slowmodeUntil,
+                repeatCount), ALLOWED);
+    }
 
-            state.lastAllowedAt = nowMillis;
-            return CheckResult.allow();
+    /**
+     * A message repeats when its fingerprint is within {@code similarityBits} of any remembered one sent
+     * inside the repeat window, so appending a counter or swapping one character no longer resets the
+     * count.
+     */
+    private boolean isRepeat(PlayerState state, long fingerprint, long nowMillis) {
+        long[] recent = state.recent();
+        for (int i = 0; i < recent.length; i += 2) {
+            long sentAt = recent[i + 1];
+            if (sentAt > 0L && nowMillis - sentAt <= repeatWindowMillis
+                    && SimHash.distance(recent[i], fingerprint) <= similarityBits) {
+                return true;
+            }
         }
+        return false;
     }
 
     public enum Reason {
         NONE,
         TRIGGERED,
-        COOLDOWN
+        COOLDOWN,
+        CAPS,
+        CHAR_FLOOD
     }
 
+    /**
+     * {@code repeat} marks an allowed message that repeats one of the player's recent ones; such messages
+     * are not counted again by the server-wide flood check.
+     */
     public record CheckResult(boolean blocked, Reason reason, long durationSeconds, long cooldownSeconds,
             long remainingSeconds) {
 
         public static CheckResult allow() {
-            return new CheckResult(false, Reason.NONE, 0L, 0L, 0L);
+            return ALLOWED;
         }
 
         public static CheckResult triggered(long durationSeconds, long cooldownSeconds) {
@@ -85,29 +211,69 @@ public final class AntiSpamService {
         }
     }
 
-    private static final class PlayerState {
-        private String lastNormalizedMessage;
-        private long lastMessageAt;
-        private long lastAllowedAt;
-        private long slowmodeUntil;
-        private int repeatCount;
+    /**
+     * {@code recent} is a ring of (fingerprint, sentAt) pairs, copied on every update; at most
+     * {@value #MAX_HISTORY} pairs, so each step stays constant in time and memory.
+     */
+    private record PlayerState(long[] recent, int head, long lastMessageAt, long lastAllowedAt, long slowmodeUntil,
+            int repeatCount) {
+        private static final PlayerState INITIAL = new PlayerState(new long[0], 0, 0L, 0L, 0L, 0);
+        private static final PlayerState EVICTED = new PlayerState(new long[0], 0, 0L, 0L, 0L, 0);
+
+        private PlayerState remember(long fingerprint, long nowMillis, int historySize, long lastAllowedAt,
+                long slowmodeUntil, int repeatCount) {
+            long[] ring = recent.length == historySize * 2 ? recent.clone() : new long[historySize * 2];
+            int slot = recent.length == ring.length ? head : 0;
+            ring[slot * 2] = fingerprint;
+            ring[slot * 2 + 1] = nowMillis;
+            return new PlayerState(ring, (slot + 1) % historySize, nowMillis, lastAllowedAt, slowmodeUntil,
+                    repeatCount);
+        }
+    }
+
+    private record Transition(PlayerState state, CheckResult result) {
+    }
+
+    /**
+     * Map value holding the player's current state; {@link PlayerState#EVICTED} marks a slot that has
+     * been removed, so a thread still holding it retries with a fresh one instead of losing its update.
+     */
+    private static final class PlayerSlot {
+        private static final VarHandle STATE;
+
+        static {
+            try {
+                STATE = MethodHandles.lookup().findVarHandle(PlayerSlot.class, "state", PlayerState.class);
+            } catch (ReflectiveOperationException ex) {
+                throw new ExceptionInInitializerError(ex);
+            }
+        }
+
+        private volatile PlayerState state = PlayerState.INITIAL;
+
+        private boolean compareAndSet(PlayerState expected, PlayerState next) {
+            return STATE.compareAndSet(this, expected, next);
+        }
     }
 
     public boolean clear(UUID uuid) {
         if (uuid == null) {
             return false;
         }
-        PlayerState state = states.get(uuid);
-        if (state == null) {
+        PlayerSlot slot = states.get(uuid);
+        if (slot == null) {
             return false;
         }
-        synchronized (state) {
-            long now = System.currentTimeMillis();
-            boolean active = state.slowmodeUntil > now;
-            state.slowmodeUntil = 0L;
-            state.repeatCount = 0;
-            state.lastAllowedAt = 0L;
-            return active;
+        long now = System.currentTimeMillis();
+        while (true) {
+            PlayerState current = slot.state;
+            if (current == PlayerState.EVICTED) {
+                return false;
+            }
+            PlayerState cleared = new PlayerState(current.recent(), current.head(), current.lastMessageAt(), 0L, 0L, 0);
+            if (slot.compareAndSet(current, cleared)) {
+                return current.slowmodeUntil() > now;
+            }
         }
     }
 }
@@ -0,0 +1,92 @@
+package com.biggiko.antislurguard.antispam;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-min sketch split into time buckets that together cover one sliding window. A bucket is wiped when
+ * the clock moves onto it again, so old counts decay without a background task and memory stays fixed at
+ * {@code BUCKETS * DEPTH * WIDTH} counters.
+ */
+final class FloodSketch {
+
+    private static final int BUCKETS = 8;
+    private static final int DEPTH = 4;
+    private static final int WIDTH_BITS = 12;
+    private static final int WIDTH = 1 << WIDTH_BITS;
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L
+    };
+
+    private final long bucketMillis;
+    private final AtomicIntegerArray counters = new AtomicIntegerArray(BUCKETS * DEPTH * WIDTH);
+    private final AtomicLongArray stamps = new AtomicLongArray(BUCKETS);
+
+    FloodSketch(long windowMillis) {
+        this.bucketMillis = Math.max(1L, windowMillis / BUCKETS);
+        for (int i = 0; i < BUCKETS; i++) {
+            stamps.set(i, -1L);
+        }
+    }
+
+    void add(long key, long nowMillis) {
+        long epoch = nowMillis / bucketMillis;
+        int bucket = (int) Math.floorMod(epoch, (long) BUCKETS);
+        if (!claim(bucket, epoch)) {
+            return;
+        }
+        for (int row = 0; row < DEPTH; row++) {
+            counters.incrementAndGet(index(bucket, row, key));
+        }
+    }
+
+    int estimate(long key, long nowMillis) {
+        long epoch = nowMillis / bucketMillis;
+        int total = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            long stamp = stamps.get(bucket);
+            if (stamp < 0L || stamp > epoch || epoch - stamp >= BUCKETS) {
+                continue;
+            }
+            int min = Integer.MAX_VALUE;
+            for (int row = 0; row < DEPTH; row++) {
+                min = Math.min(min, counters.get(index(bucket, row, key)));
+            }
+            total += min;
+        }
+        return total;
+    }
+
+    /**
+     * Makes {@code bucket} current for {@code epoch}, clearing what it counted one window ago. Returns
+     * {@code false} for a caller whose clock is already a full window behind.
+     */
+    private boolean claim(int bucket, long epoch) {
+        long stamp = stamps.get(bucket);
+        if (stamp == epoch) {
+            return true;
+        }
+        if (stamp > epoch) {
+            return false;
+        }
+        synchronized (this) {
+            stamp = stamps.get(bucket);
+            if (stamp < epoch) {
+                int base = bucket * DEPTH * WIDTH;
+                for (int i = 0; i < DEPTH * WIDTH; i++) {
+                    counters.set(base + i, 0);
+                }
+                stamps.set(bucket, epoch);
+            }
+            return stamps.get(bucket) == epoch;
+        }
+    }
+
+    private static int index(int bucket, int row, long key) {
+        long hash = (key ^ SEEDS[row]) * 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        int column = (int) (hash >>> (64 - WIDTH_BITS));
+        return (bucket * DEPTH + row) * WIDTH + column;
+    }
+}
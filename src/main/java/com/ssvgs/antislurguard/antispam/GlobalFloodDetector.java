@@ -0,0 +1,78 @@
+package com.biggiko.antislurguard.antispam;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.biggiko.antislurguard.config.Config;
+import com.biggiko.antislurguard.normalization.MessageFeatures;
+
+/**
+ * Server-wide view of what is being said: counts message fingerprints from all players in a sliding
+ * window so the same line sent from many accounts is caught even though no single player repeats it.
+ * Each 64-bit SimHash is counted under its four 16-bit bands; two fingerprints at most three bits apart
+ * always share a band, so bots that append counters still add up to one count.
+ * <p>
+ * Only distinct senders are counted: a second sketch remembers which (band, sender) pairs were already
+ * seen in the window, so one player repeating or cycling a line adds to its count only once, whatever
+ * the per-player anti-spam settings are. A false positive there can only undercount.
+ */
+public final class GlobalFloodDetector {
+
+    private static final int BANDS = 4;
+
+    private final Config.GlobalFloodSettings settings;
+    private final long windowMillis;
+    private final FloodSketch sketch;
+    private final FloodSketch seen;
+    private final AtomicLong nextAlertAt = new AtomicLong();
+
+    public GlobalFloodDetector(Config.GlobalFloodSettings settings) {
+        this.settings = settings;
+        this.windowMillis = Math.max(1L, settings.windowSeconds()) * 1000L;
+        this.sketch = new FloodSketch(windowMillis);
+        this.seen = new FloodSketch(windowMillis);
+    }
+
+    /**
+     * Whether a message is checked at all; short normalized lines such as "gg" are legitimately sent by
+     * many players at once.
+     */
+    public boolean applies(MessageFeatures features) {
+        return settings.enabled() && features.normalizedLength() >= settings.minLength();
+    }
+
+    /**
+     * Counts {@code sender} for the message unless they already sent it or a near-duplicate within the
+     * window, and returns the estimated number of distinct recent senders, including this one.
+     */
+    public int record(UUID sender, long fingerprint, long nowMillis) {
+        long senderHash = sender.getMostSignificantBits() * 31L + sender.getLeastSignificantBits();
+        int estimate = 0;
+        for (int band = 0; band < BANDS; band++) {
+            long key = ((long) band << 16) | ((fingerprint >>> (band * 16)) & 0xFFFFL);
+            long pair = key * 0x9E3779B97F4A7C15L ^ senderHash;
+            if (seen.estimate(pair, nowMillis) == 0) {
+                seen.add(pair, nowMillis);
+                sketch.add(key, nowMillis);
+            }
+            estimate = Math.max(estimate, sketch.estimate(key, nowMillis));
+        }
+        return estimate;
+    }
+
+    public boolean isFlood(int senders) {
+        return senders >= settings.playerThreshold();
+    }
+
+    public long windowSeconds() {
+        return windowMillis / 1000L;
+    }
+
+    /**
+     * Lets one admin alert through per window, however many messages of the flood are blocked.
+     */
+    public boolean tryAlert(long nowMillis) {
+        long next = nextAlertAt.get();
+        return nowMillis >= next && nextAlertAt.compareAndSet(next, nowMillis + windowMillis);
+    }
+}
@@ -0,0 +1,137 @@
+package com.biggiko.antislurguard.antispam;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import com.biggiko.antislurguard.AntiSlurGuardPlugin;
+import com.biggiko.antislurguard.config.Config;
+
+/**
+ * Server-wide chat throttle. Chat threads only bump a {@link LongAdder}; a once-per-second tick folds it
+ * into a sliding window of one-second buckets and moves the global cooldown: one step up per window while
+ * the rate is above {@code tightenAboveRate}, one step down after it has stayed below
+ * {@code relaxBelowRate} for {@code relaxAfterSeconds}. The gap between the two rates keeps the cooldown
+ * from flapping around a single threshold.
+ */
+public final class GlobalSlowmodeService {
+
+    private final AntiSlurGuardPlugin plugin;
+    private final Config.GlobalSlowmodeSettings settings;
+    private final LongAdder currentSecond = new LongAdder();
+    private final long[] buckets;
+    private volatile double rate;
+    private volatile long cooldownSeconds;
+    private int bucketIndex;
+    private long windowSum;
+    private long lastChange;
+    private long calmSince;
+    private BukkitTask task;
+
+    public GlobalSlowmodeService(AntiSlurGuardPlugin plugin, Config.GlobalSlowmodeSettings settings) {
+        this.plugin = plugin;
+        this.settings = settings;
+        this.buckets = new long[(int) settings.windowSeconds()];
+    }
+
+    public void start() {
+        cancel();
+        if (settings.enabled()) {
+            task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 20L, 20L);
+        }
+    }
+
+    public void cancel() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * Counts one chat message. Safe from any thread.
+     */
+    public void record() {
+        if (settings.enabled()) {
+            currentSecond.increment();
+        }
+    }
+
+    public long cooldownMillis() {
+        return cooldownSeconds * 1000L;
+    }
+
+    public long cooldownSeconds() {
+        return cooldownSeconds;
+    }
+
+    /**
+     * Messages per second averaged over the window.
+     */
+    public double rate() {
+        return rate;
+    }
+
+    public boolean enabled() {
+        return settings.enabled();
+    }
+
+    public long windowSeconds() {
+        return buckets.length;
+    }
+
+    private void tick() {
+        long now = System.currentTimeMillis();
+        long finished = currentSecond.sumThenReset();
+        bucketIndex = (bucketIndex + 1) % buckets.length;
+        windowSum += finished - buckets[bucketIndex];
+        buckets[bucketIndex] = finished;
+        double current = (double) windowSum / buckets.length;
+        rate = current;
+
+        long previous = cooldownSeconds;
+        long next = previous;
+        if (current > settings.tightenAboveRate()) {
+            calmSince = 0L;
+            if (now - lastChange >= buckets.length * 1000L) {
+                next = Math.min(settings.maxCooldownSeconds(), previous + settings.stepSeconds());
+            }
+        } else if (current < settings.relaxBelowRate()) {
+            if (calmSince == 0L) {
+                calmSince = now;
+            }
+            long relaxMillis = settings.relaxAfterSeconds() * 1000L;
+            if (previous > 0L && now - calmSince >= relaxMillis && now - lastChange >= relaxMillis) {
+                next = Math.max(0L, previous - settings.stepSeconds());
+            }
+        } else {
+            calmSince = 0L;
+        }
+        if (next == previous) {
+            return;
+        }
+        cooldownSeconds = next;
+        lastChange = now;
+        String formatted = String.format(Locale.ROOT, "%.1f", current);
+        if (previous == 0L) {
+            plugin.getLogger().warning("Включён общий slowmode " + next + "s: в чате " + formatted
+                    + " сообщ./с.");
+            notifyAdmins("global-slowmode-on", "&c[ASG] Chat is busy ({rate} msg/s): global slowmode {cooldown}s.",
+                    Map.of("rate", formatted, "cooldown", Long.toString(next)));
+        } else if (next == 0L) {
+            plugin.getLogger().info("Общий slowmode снят.");
+            notifyAdmins("global-slowmode-off", "&a[ASG] Chat rate is back to normal, global slowmode lifted.",
+                    Map.of());
+        }
+    }
+
+    private void notifyAdmins(String key, String fallback, Map<String, String> placeholders) {
+        if (!plugin.adminNotifications().hasRecipients()) {
+            return;
+        }
+        plugin.adminNotifications().broadcast(plugin.messages().component(key, fallback, placeholders));
+    }
+}
@@ -0,0 +1,149 @@
+package com.biggiko.antislurguard.bypass;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import com.biggiko.antislurguard.AntiSlurGuardPlugin;
+
+/**
+ * Resolves bypass from memory only. Online players are cached on join and refreshed periodically, after
+ * permission commands and, with LuckPerms installed, whenever LuckPerms recalculates a player's
+ * permissions; offline checks fall back to a snapshot of the operator list. Each refresh also re-checks
+ * the admin alert recipients, which depend on the same permission changes.
+ */
+public final class BypassService {
+
+    /**
+     * Permission plugins may apply a command a few ticks later on their own thread, so a command is
+     * followed by a second refresh after this delay.
+     */
+    private static final long FOLLOW_UP_TICKS = 20L;
+
+    private final AntiSlurGuardPlugin plugin;
+    private final String permission;
+    private final long refreshTicks;
+    private final Set<UUID> onlineIds = ConcurrentHashMap.newKeySet();
+    private final Set<String> onlineNames = ConcurrentHashMap.newKeySet();
+    private volatile Set<UUID> operatorIds = Set.of();
+    private volatile Set<String> operatorNames = Set.of();
+    private BukkitTask refreshTask;
+    private LuckPermsHook luckPerms;
+    private boolean refreshQueued;
+    private boolean followUpQueued;
+
+    public BypassService(AntiSlurGuardPlugin plugin, String permission, long refreshSeconds) {
+        this.plugin = plugin;
+        this.permission = permission;
+        this.refreshTicks = Math.max(20L, refreshSeconds * 20L);
+    }
+
+    public void start() {
+        cancel();
+        refreshAll();
+        refreshTask = Bukkit.getScheduler().runTaskTimer(plugin, this::refreshAll, refreshTicks, refreshTicks);
+        luckPerms = LuckPermsHook.install(plugin, uuid -> Bukkit.getScheduler().runTask(plugin, () -> {
+            Player player = Bukkit.getPlayer(uuid);
+            if (player != null) {
+                refresh(player);
+                plugin.adminNotifications().refresh(player);
+            }
+        }));
+    }
+
+    public void cancel() {
+        if (refreshTask != null) {
+            refreshTask.cancel();
+            refreshTask = null;
+        }
+        if (luckPerms != null) {
+            luckPerms.close();
+            luckPerms = null;
+        }
+    }
+
+    /**
+     * Safe from any thread; never touches the Bukkit API.
+     */
+    public boolean hasBypass(UUID uniqueId, String name) {
+        if (permission == null || permission.isBlank()) {
+            return false;
+        }
+        if (uniqueId != null && (onlineIds.contains(uniqueId) || operatorIds.contains(uniqueId))) {
+            return true;
+        }
+        if (name != null && !name.isBlank()) {
+            String lower = name.toLowerCase(Locale.ROOT);
+            return onlineNames.contains(lower) || operatorNames.contains(lower);
+        }
+        return false;
+    }
+
+    public void refresh(Player player) {
+        UUID uuid = player.getUniqueId();
+        String lower = player.getName().toLowerCase(Locale.ROOT);
+        if (permission != null && !permission.isBlank() && player.hasPermission(permission)) {
+            onlineIds.add(uuid);
+            onlineNames.add(lower);
+        } else {
+            onlineIds.remove(uuid);
+            onlineNames.remove(lower);
+        }
+    }
+
+    public void forget(Player player) {
+        onlineIds.remove(player.getUniqueId());
+        onlineNames.remove(player.getName().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Coalesces op/deop and similar changes into one refresh on the next tick and one more
+     * {@link #FOLLOW_UP_TICKS} later, for permission plugins that apply the change asynchronously.
+     */
+    public void queueRefresh() {
+        if (!refreshQueued) {
+            refreshQueued = true;
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                refreshQueued = false;
+                refreshAll();
+            });
+        }
+        if (!followUpQueued) {
+            followUpQueued = true;
+            Bukkit.getScheduler().runTaskLater(plugin, () -> {
+                followUpQueued = false;
+                refreshAll();
+            }, FOLLOW_UP_TICKS);
+        }
+    }
+
+    public void refreshAll() {
+        Set<UUID> ids = new HashSet<>();
+        Set<String> names = new HashSet<>();
+        for (OfflinePlayer operator : Bukkit.getOperators()) {
+            ids.add(operator.getUniqueId());
+            if (operator.getName() != null) {
+                names.add(operator.getName().toLowerCase(Locale.ROOT));
+            }
+        }
+        operatorIds = Set.copyOf(ids);
+        operatorNames = Set.copyOf(names);
+        Set<UUID> onlineNow = new HashSet<>();
+        Set<String> onlineNamesNow = new HashSet<>();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            refresh(player);
+            onlineNow.add(player.getUniqueId());
+            onlineNamesNow.add(player.getName().toLowerCase(Locale.ROOT));
+        }
+        onlineIds.retainAll(onlineNow);
+        onlineNames.retainAll(onlineNamesNow);
+        plugin.adminNotifications().refreshAll();
+    }
+}
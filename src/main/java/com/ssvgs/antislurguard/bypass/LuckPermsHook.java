@@ -0,0 +1,72 @@
+package com.biggiko.antislurguard.bypass;
+
+import java.lang.reflect.Method;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+import org.bukkit.Bukkit;
+
+import com.biggiko.antislurguard.AntiSlurGuardPlugin;
+
+/**
+ * Listens for LuckPerms' {@code UserDataRecalculateEvent}, which fires once LuckPerms has finished
+ * applying a permission change asynchronously, no matter whether it came from a command alias, the
+ * console, the web editor or the API. LuckPerms is an optional soft dependency, so its API is reached by
+ * reflection and the hook is simply not installed when the plugin is missing.
+ */
+final class LuckPermsHook {
+
+    private static final String PROVIDER = "net.luckperms.api.LuckPermsProvider";
+    private static final String API = "net.luckperms.api.LuckPerms";
+    private static final String EVENT_BUS = "net.luckperms.api.event.EventBus";
+    private static final String RECALCULATE_EVENT = "net.luckperms.api.event.user.UserDataRecalculateEvent";
+    private static final String USER = "net.luckperms.api.model.user.User";
+
+    private final AutoCloseable subscription;
+
+    private LuckPermsHook(AutoCloseable subscription) {
+        this.subscription = subscription;
+    }
+
+    /**
+     * @param onRecalculate called on the LuckPerms worker thread with the affected player's UUID
+     * @return {@code null} when LuckPerms is not installed or its API could not be reached
+     */
+    static LuckPermsHook install(AntiSlurGuardPlugin plugin, Consumer<UUID> onRecalculate) {
+        if (!Bukkit.getPluginManager().isPluginEnabled("LuckPerms")) {
+            return null;
+        }
+        try {
+            ClassLoader loader = plugin.getClass().getClassLoader();
+            Object api = Class.forName(PROVIDER, true, loader).getMethod("get").invoke(null);
+            Object eventBus = Class.forName(API, true, loader).getMethod("getEventBus").invoke(api);
+            Class<?> eventClass = Class.forName(RECALCULATE_EVENT, true, loader);
+            Method getUser = eventClass.getMethod("getUser");
+            Method getUniqueId = Class.forName(USER, true, loader).getMethod("getUniqueId");
+            Consumer<Object> handler = event -> {
+                try {
+                    onRecalculate.accept((UUID) getUniqueId.invoke(getUser.invoke(event)));
+                } catch (ReflectiveOperationException ex) {
+                    plugin.getLogger().log(Level.FINE, "Не удалось обработать событие LuckPerms", ex);
+                }
+            };
+            Object subscription = Class.forName(EVENT_BUS, true, loader)
+                    .getMethod("subscribe", Object.class, Class.class, Consumer.class)
+                    .invoke(eventBus, plugin, eventClass, handler);
+            return new LuckPermsHook((AutoCloseable) subscription);
+        } catch (ReflectiveOperationException | ClassCastException | LinkageError ex) {
+            plugin.getLogger().log(Level.WARNING,
+                    "Не удалось подписаться на события LuckPerms, bypass обновляется только по таймеру", ex);
+            return null;
+        }
+    }
+
+    void close() {
+        try {
+            subscription.close();
+        } catch (Exception ex) {
+            // LuckPerms drops our handlers itself when the plugin is disabled
+        }
+    }
+}
@@ -3,9 +3,11 @@ package com.biggiko.antislurguard.command;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import org.bukkit.Bukkit;
@@ -17,8 +19,10 @@ import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 
 import com.biggiko.antislurguard.AntiSlurGuardPlugin;
+import com.biggiko.antislurguard.antispam.GlobalSlowmodeService;
 import com.biggiko.antislurguard.notification.AdminNotificationService.ToggleAction;
 import com.biggiko.antislurguard.pattern.PatternStore.PatternMatch;
+import com.biggiko.antislurguard.pattern.VerdictCache;
 import com.biggiko.antislurguard.stats.PlayerStatsService;
 import com.biggiko.antislurguard.stats.UserViolationLogService.ViolationEntry;
 
@@ -27,6 +31,8 @@ import net.kyori.adventure.text.format.NamedTextColor;
 
 public final class AsgCommand implements CommandExecutor, TabCompleter {
 
+    private static final int MAX_NAME_COMPLETIONS = 50;
+
     private final AntiSlurGuardPlugin plugin;
 
     public AsgCommand(AntiSlurGuardPlugin plugin) {
@@ -76,23 +82,42 @@ public final class AsgCommand implements CommandExecutor, TabCompleter {
     private void handleStats(CommandSender sender, String[] args) {
         if (args.length >= 2) {
             String target = args[1];
-            plugin.playerStatsService().findByQuery(target).ifPresentOrElse(view -> {
-                sender.sendMessage(plugin.messages().component("player-stats-header", "&6Статистика:",
-                        Map.of("player", view.playerName())));
-                sender.sendMessage(plugin.messages().component("player-stats-line",
-                        "&7Чат-нарушений: {violations}, пермабанов: {permaBans}.", Map.of(
-                                "violations", Integer.toString(view.chatViolations()),
-                                "permaBans", Integer.toString(view.permanentBans()),
-                                "player", view.playerName())));
-            }, () -> sender.sendMessage(plugin.messages().component("player-stats-missing",
-                    "&cНет данных по игроку {player}.", Map.of("player", target))));
+            UUID online = onlineUuid(target);
+            Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> sendPlayerStats(sender, target, online));
             return;
         }
         int nameBlocks = plugin.statsService().currentNameBlocks();
         int chatBlocks = plugin.statsService().currentChatBlocks();
         sender.sendMessage(plugin.messages().component("stats-global",
-                String.format("&eБлокировки: ники=%d, чат=%d.", nameBlocks, chatBlocks),
+                "&eБлокировки: ники={nameBlocks}, чат={chatBlocks}.",
                 Map.of("nameBlocks", Integer.toString(nameBlocks), "chatBlocks", Integer.toString(chatBlocks))));
+        VerdictCache.Stats cache = plugin.verdictCache().stats();
+        if (cache.capacity() > 0) {
+            sender.sendMessage(plugin.messages().component("stats-cache",
+                    "&7Кэш вердиктов: {hitRate}% попаданий ({hits}/{lookups}), {size}/{capacity} записей, вытеснено {evictions}.", Map.of(
+                            "hitRate", String.format(Locale.ROOT, "%.1f", cache.hitRate() * 100.0),
+                            "hits", Long.toString(cache.hits()),
+                            "lookups", Long.toString(cache.hits() + cache.misses()),
+                            "evictions", Long.toString(cache.evictions()),
+                            "size", Integer.toString(cache.size()),
+                            "capacity", Integer.toString(cache.capacity()))));
+        }
+    }
+
+    /**
+     * Runs off the main thread: the player's record may have to be read from disk.
+     */
+    private void sendPlayerStats(CommandSender sender, String target, UUID online) {
+        plugin.playerStatsService().findByQuery(target, online).ifPresentOrElse(view -> {
+            sender.sendMessage(plugin.messages().component("player-stats-header", "&6Статистика:",
+                    Map.of("player", view.playerName())));
+            sender.sendMessage(plugin.messages().component("player-stats-line",
+                    "&7Чат-нарушений: {violations}, пермабанов: {permaBans}.", Map.of(
+                            "violations", Integer.toString(view.chatViolations()),
+                            "permaBans", Integer.toString(view.permanentBans()),
+                            "player", view.playerName())));
+        }, () -> sender.sendMessage(plugin.messages().component("player-stats-missing",
+                "&cНет данных по игроку {player}.", Map.of("player", target))));
     }
 
     private void handleTest(CommandSender sender, String[] args) {
@@ -127,7 +152,20 @@ public final class AsgCommand implements CommandExecutor, TabCompleter {
             return;
         }
         String player = args[1];
-        var stats = plugin.playerStatsService().findByQuery(player);
+        UUID online = onlineUuid(player);
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> sendLogs(sender, player, online));
+    }
+
+    /**
+     * Online player lookup for the stats queries; done on the main thread before they go async.
+     */
+    private UUID onlineUuid(String name) {
+        Player player = Bukkit.getPlayerExact(name);
+        return player != null ? player.getUniqueId() : null;
+    }
+
+    private void sendLogs(CommandSender sender, String player, UUID online) {
+        var stats = plugin.playerStatsService().findByQuery(player, online);
         var entries = plugin.userViolationLogService().readEntries(player, 50);
 
         int violations = stats.map(view -> view.chatViolations()).orElse(entries.size());
@@ -323,9 +361,23 @@ public final class AsgCommand implements CommandExecutor, TabCompleter {
     }
 
     private void handleSlowmode(CommandSender sender, String[] args) {
+        if (args.length == 1) {
+            GlobalSlowmodeService global = plugin.globalSlowmode();
+            long cooldown = global.cooldownSeconds();
+            Map<String, String> placeholders = Map.of(
+                    "rate", String.format(Locale.ROOT, "%.1f", global.rate()),
+                    "window", Long.toString(global.windowSeconds()),
+                    "cooldown", Long.toString(cooldown));
+            sender.sendMessage(cooldown > 0L
+                    ? plugin.messages().component("management-slowmode-status",
+                            "&eЧат: {rate} сообщ./с за {window}с. Общий slowmode: {cooldown}с.", placeholders)
+                    : plugin.messages().component("management-slowmode-status-off",
+                            "&eЧат: {rate} сообщ./с за {window}с. Общий slowmode выключен.", placeholders));
+            return;
+        }
         if (args.length < 3 || !"clear".equalsIgnoreCase(args[2])) {
             sender.sendMessage(plugin.messages().component("management-slowmode-usage",
-                    "&c/asg slowmode <player> clear", Map.of()));
+                    "&c/asg slowmode [<player> clear]", Map.of()));
             return;
         }
         String playerName = args[1];
@@ -355,7 +407,7 @@ public final class AsgCommand implements CommandExecutor, TabCompleter {
         String sub = args[0].toLowerCase(Locale.ROOT);
         switch (sub) {
             case "stats" -> {
-                return args.length == 2 ? List.of("<player>") : List.of();
+                return args.length == 2 ? completeOffenders(args[1]) : List.of();
             }
             case "test" -> {
                 return args.length == 2 ? List.of("<text>") : List.of();
@@ -364,15 +416,7 @@ public final class AsgCommand implements CommandExecutor, TabCompleter {
                 return args.length == 2 ? List.of("<pattern>") : List.of();
             }
             case "logs" -> {
-                if (args.length == 2) {
-                    List<String> base = new ArrayList<>();
-                    base.add("<player>");
-                    for (Player online : Bukkit.getOnlinePlayers()) {
-                        base.add(online.getName());
-                    }
-                    return filter(base, args[1]);
-                }
-                return List.of();
+                return args.length == 2 ? completeOffenders(args[1]) : List.of();
             }
             case "except" -> {
                 if (args.length == 2) {
@@ -412,6 +456,25 @@ public final class AsgCommand implements CommandExecutor, TabCompleter {
         }
     }
 
+    /**
+     * Known offenders from the stats name index, plus online players, matching the typed prefix.
+     */
+    private List<String> completeOffenders(String current) {
+        Set<String> results = new LinkedHashSet<>();
+        if (current.isEmpty()) {
+            results.add("<player>");
+        }
+        results.addAll(plugin.playerStatsService().completeNames(current, MAX_NAME_COMPLETIONS));
+        String lower = current.toLowerCase(Locale.ROOT);
+        for (Player online : Bukkit.getOnlinePlayers()) {
+            String name = online.getName();
+            if (name.toLowerCase(Locale.ROOT).startsWith(lower)) {
+                results.add(name);
+            }
+        }
+        return new ArrayList<>(results);
+    }
+
     private List<String> filter(List<String> options, String current) {
         if (current == null || current.isEmpty()) {
             return options;
@@ -439,7 +502,8 @@ public final class AsgCommand implements CommandExecutor, TabCompleter {
                 new HelpEntry("/asg logs <player>", "help.logs", "Показать историю нарушений и полные сообщения"),
                 new HelpEntry("/asg unmute <player>", "help.unmute", "Снять мут через шаблон команды управления"),
                 new HelpEntry("/asg unban <player>", "help.unban", "Снять бан через шаблон команды управления"),
-                new HelpEntry("/asg slowmode <player> clear", "help.slowmode", "Сбросить персональный слоумод")
+                new HelpEntry("/asg slowmode [<player> clear]", "help.slowmode",
+                        "Показать темп чата и общий slowmode или сбросить персональный слоумод")
         );
     }
 }
@@ -18,7 +18,9 @@ public record Config(
         StatsSettings stats,
         EssentialsSettings essentials,
         AnnouncementsSettings announcements,
-        ManagementSettings management) {
+        ManagementSettings management,
+        RaidModeSettings raidMode,
+        PerformanceSettings performance) {
 
     public static Config from(FileConfiguration config) {
         String lang = config.getString("lang", "en_US");
@@ -35,8 +37,10 @@ public record Config(
         AnnouncementsSettings announcements = AnnouncementsSettings
                 .from(config.getConfigurationSection("announcements"));
         ManagementSettings management = ManagementSettings.from(config.getConfigurationSection("management"));
+        RaidModeSettings raidMode = RaidModeSettings.from(config.getConfigurationSection("raidMode"));
+        PerformanceSettings performance = PerformanceSettings.from(config.getConfigurationSection("performance"));
         return new Config(lang, paths, patternOptions, normalize, permissions, console, punishments, notifications, antiSpam,
-                stats, essentials, announcements, management);
+                stats, essentials, announcements, management, raidMode, performance);
     }
 
     public String patternsFile() {
@@ -51,13 +55,20 @@ public record Config(
             String userDataDir,
             String runtimeSettingsFile,
             String announcementsFile,
-            String languagesDir) {
+            String languagesDir,
+            String knownBadNamesFile,
+            String mutesFile,
+            String playerStatsJournalFile,
+            String playerStatsDir,
+            String playerNameIndexFile) {
         public static Paths from(ConfigurationSection section) {
             String base = "plugins/AntiSlurGuard";
             if (section == null) {
                 return new Paths(base + "/banned-patterns.txt", base + "/exceptions.txt", base + "/messages.yml",
                         base + "/admin-notify.yml", base + "/player-stats.yml", base + "/userdata",
-                        base + "/runtime-settings.yml", base + "/announcements.yml", base + "/lang");
+                        base + "/runtime-settings.yml", base + "/announcements.yml", base + "/lang",
+                        base + "/known-bad-names.txt", base + "/mutes.yml", base + "/player-stats.journal",
+                        base + "/player-stats", base + "/player-names.index");
             }
             String patterns = section.getString("patternsFile", base + "/banned-patterns.txt");
             String exceptions = section.getString("exceptionsFile", base + "/exceptions.txt");
@@ -68,16 +79,24 @@ public record Config(
             String runtime = section.getString("runtimeSettingsFile", base + "/runtime-settings.yml");
             String announce = section.getString("announcementsFile", base + "/announcements.yml");
             String languages = section.getString("languagesDir", base + "/lang");
-            return new Paths(patterns, exceptions, messages, admin, stats, userDataDir, runtime, announce, languages);
+            String knownBadNames = section.getString("knownBadNamesFile", base + "/known-bad-names.txt");
+            String mutes = section.getString("mutesFile", base + "/mutes.yml");
+            String statsJournal = section.getString("playerStatsJournalFile", base + "/player-stats.journal");
+            String statsDir = section.getString("playerStatsDir", base + "/player-stats");
+            String nameIndex = section.getString("playerNameIndexFile", base + "/player-names.index");
+            return new Paths(patterns, exceptions, messages, admin, stats, userDataDir, runtime, announce, languages,
+                    knownBadNames, mutes, statsJournal, statsDir, nameIndex);
         }
     }
 
-    public record PatternOptions(boolean autoVariants) {
+    public record PatternOptions(boolean autoVariants, boolean prefilter, boolean crossMessage) {
         public static PatternOptions from(ConfigurationSection section) {
             if (section == null) {
-                return new PatternOptions(true);
+                return new PatternOptions(true, true, true);
             }
-            return new PatternOptions(section.getBoolean("autoVariants", true));
+            return new PatternOptions(section.getBoolean("autoVariants", true),
+                    section.getBoolean("prefilter", true),
+                    section.getBoolean("crossMessage", true));
         }
     }
 
@@ -128,15 +147,16 @@ public record Config(
         }
     }
 
-    public record Punishments(Punishment nickname, Punishment chat) {
+    public record Punishments(Punishment nickname, Punishment chat, boolean nativeMutes) {
         public static Punishments from(ConfigurationSection section) {
             if (section == null) {
-                return new Punishments(Punishment.defaultNickname(), Punishment.defaultChat());
+                return new Punishments(Punishment.defaultNickname(), Punishment.defaultChat(), false);
             }
             Punishment nickname = Punishment.from(section.getConfigurationSection("nickname"),
                     Punishment.defaultNickname());
             Punishment chat = Punishment.from(section.getConfigurationSection("chat"), Punishment.defaultChat());
-            return new Punishments(nickname, chat);
+            boolean nativeMutes = section.getBoolean("nativeMutes", false);
+            return new Punishments(nickname, chat, nativeMutes);
         }
     }
 
@@ -179,7 +199,13 @@ public record Config(
             int repeatThreshold,
             long slowmodeDurationSeconds,
             long slowmodeCooldownSeconds,
-            AntiSpamMessages messages) {
+            int similarityBits,
+            int historySize,
+            AntiSpamMessages messages,
+            GlobalFloodSettings globalFlood,
+            GlobalSlowmodeSettings globalSlowmode,
+            CapsSettings caps,
+            CharFloodSettings charFlood) {
 
         public static AntiSpamSettings from(ConfigurationSection section) {
             if (section == null) {
@@ -190,14 +216,25 @@ public record Config(
             int repeatThreshold = section.getInt("repeatThreshold", 2);
             long slowmodeDurationSeconds = section.getLong("slowmodeDurationSeconds", 60L);
             long slowmodeCooldownSeconds = section.getLong("slowmodeCooldownSeconds", 10L);
+            int similarityBits = section.getInt("similarityBits", 8);
+            int historySize = section.getInt("historySize", 4);
             AntiSpamMessages messages = AntiSpamMessages
                     .from(section.getConfigurationSection("messages"));
+            GlobalFloodSettings globalFlood = GlobalFloodSettings
+                    .from(section.getConfigurationSection("globalFlood"));
+            GlobalSlowmodeSettings globalSlowmode = GlobalSlowmodeSettings
+                    .from(section.getConfigurationSection("globalSlowmode"));
+            CapsSettings caps = CapsSettings.from(section.getConfigurationSection("caps"));
+            CharFloodSettings charFlood = CharFloodSettings.from(section.getConfigurationSection("charFlood"));
             return new AntiSpamSettings(enabled, repeatWindowSeconds, repeatThreshold, slowmodeDurationSeconds,
-                    slowmodeCooldownSeconds, messages);
+                    slowmodeCooldownSeconds, similarityBits, historySize, messages, globalFlood, globalSlowmode,
+                    caps, charFlood);
         }
 
         public static AntiSpamSettings defaults() {
-            return new AntiSpamSettings(true, 15L, 2, 60L, 10L, AntiSpamMessages.defaults());
+            return new AntiSpamSettings(true, 15L, 2, 60L, 10L, 8, 4, AntiSpamMessages.defaults(),
+                    GlobalFloodSettings.from(null), GlobalSlowmodeSettings.from(null), CapsSettings.from(null),
+                    CharFloodSettings.from(null));
         }
     }
 
@@ -217,6 +254,60 @@ public record Config(
         }
     }
 
+    public record GlobalFloodSettings(boolean enabled, long windowSeconds, int playerThreshold, int minLength) {
+        public static GlobalFloodSettings from(ConfigurationSection section) {
+            if (section == null) {
+                return new GlobalFloodSettings(true, 10L, 6, 6);
+            }
+            boolean enabled = section.getBoolean("enabled", true);
+            long windowSeconds = Math.max(1L, section.getLong("windowSeconds", 10L));
+            int playerThreshold = Math.max(2, section.getInt("playerThreshold", 6));
+            int minLength = Math.max(1, section.getInt("minLength", 6));
+            return new GlobalFloodSettings(enabled, windowSeconds, playerThreshold, minLength);
+        }
+    }
+
+    public record GlobalSlowmodeSettings(boolean enabled, long windowSeconds, double tightenAboveRate,
+            double relaxBelowRate, long stepSeconds, long maxCooldownSeconds, long relaxAfterSeconds) {
+        public static GlobalSlowmodeSettings from(ConfigurationSection section) {
+            if (section == null) {
+                return new GlobalSlowmodeSettings(false, 5L, 8.0, 3.0, 1L, 5L, 20L);
+            }
+            boolean enabled = section.getBoolean("enabled", false);
+            long windowSeconds = Math.max(1L, section.getLong("windowSeconds", 5L));
+            double tightenAboveRate = Math.max(0.1, section.getDouble("tightenAboveRate", 8.0));
+            double relaxBelowRate = Math.min(tightenAboveRate, Math.max(0.0, section.getDouble("relaxBelowRate", 3.0)));
+            long stepSeconds = Math.max(1L, section.getLong("stepSeconds", 1L));
+            long maxCooldownSeconds = Math.max(stepSeconds, section.getLong("maxCooldownSeconds", 5L));
+            long relaxAfterSeconds = Math.max(1L, section.getLong("relaxAfterSeconds", 20L));
+            return new GlobalSlowmodeSettings(enabled, windowSeconds, tightenAboveRate, relaxBelowRate, stepSeconds,
+                    maxCooldownSeconds, relaxAfterSeconds);
+        }
+    }
+
+    public record CapsSettings(boolean enabled, int minLetters, int maxUppercasePercent) {
+        public static CapsSettings from(ConfigurationSection section) {
+            if (section == null) {
+                return new CapsSettings(false, 8, 70);
+            }
+            boolean enabled = section.getBoolean("enabled", false);
+            int minLetters = Math.max(1, section.getInt("minLetters", 8));
+            int maxUppercasePercent = Math.max(0, Math.min(100, section.getInt("maxUppercasePercent", 70)));
+            return new CapsSettings(enabled, minLetters, maxUppercasePercent);
+        }
+    }
+
+    public record CharFloodSettings(boolean enabled, int maxRun) {
+        public static CharFloodSettings from(ConfigurationSection section) {
+            if (section == null) {
+                return new CharFloodSettings(false, 8);
+            }
+            boolean enabled = section.getBoolean("enabled", false);
+            int maxRun = Math.max(2, section.getInt("maxRun", 8));
+            return new CharFloodSettings(enabled, maxRun);
+        }
+    }
+
     public record PlayerNotification(boolean enabled, String messageKey) {
         public static PlayerNotification from(ConfigurationSection section) {
             if (section == null) {
@@ -232,30 +323,36 @@ public record Config(
         }
     }
 
-    public record AdminNotification(boolean enabled, String chatMessageKey) {
+    public record AdminNotification(boolean enabled, String chatMessageKey, int burstLimit,
+            long summaryWindowSeconds) {
         public static AdminNotification from(ConfigurationSection section) {
             if (section == null) {
                 return defaults();
             }
             boolean enabled = section.getBoolean("enabled", true);
             String chat = section.getString("chatMessageKey", "admin-chat-alert");
-            return new AdminNotification(enabled, chat);
+            int burstLimit = section.getInt("burstLimit", 5);
+            long summaryWindowSeconds = section.getLong("summaryWindowSeconds", 5L);
+            return new AdminNotification(enabled, chat, burstLimit, summaryWindowSeconds);
         }
 
         public static AdminNotification defaults() {
-            return new AdminNotification(true, "admin-chat-alert");
+            return new AdminNotification(true, "admin-chat-alert", 5, 5L);
         }
     }
 
-    public record StatsSettings(boolean trackChatViolations, int autoPermaBanThreshold, String autoPermaBanReasonKey) {
+    public record StatsSettings(boolean trackChatViolations, int autoPermaBanThreshold, String autoPermaBanReasonKey,
+            int journalCompactLines, int residentPlayers) {
         public static StatsSettings from(ConfigurationSection section) {
             if (section == null) {
-                return new StatsSettings(true, 5, "auto-permaban-reason");
+                return new StatsSettings(true, 5, "auto-permaban-reason", 10000, 2000);
             }
             boolean track = section.getBoolean("trackChatViolations", true);
             int threshold = section.getInt("autoPermaBanThreshold", 5);
             String reasonKey = section.getString("autoPermaBanReasonKey", "auto-permaban-reason");
-            return new StatsSettings(track, threshold, reasonKey);
+            int journalCompactLines = Math.max(100, section.getInt("journalCompactLines", 10000));
+            int residentPlayers = Math.max(16, section.getInt("residentPlayers", 2000));
+            return new StatsSettings(track, threshold, reasonKey, journalCompactLines, residentPlayers);
         }
     }
 
@@ -320,4 +417,38 @@ public record Config(
             return new ManagementSettings(unmute, unban);
         }
     }
+
+    public record RaidModeSettings(boolean enabled, int joinThreshold, long windowSeconds, long cooldownSeconds,
+            int slowChecksPerSecond, long reportIntervalSeconds, String floodgatePrefix) {
+        public static RaidModeSettings from(ConfigurationSection section) {
+            if (section == null) {
+                return new RaidModeSettings(true, 40, 10L, 60L, 5, 15L, ".");
+            }
+            boolean enabled = section.getBoolean("enabled", true);
+            int joinThreshold = Math.max(1, section.getInt("joinThreshold", 40));
+            long windowSeconds = Math.max(1L, section.getLong("windowSeconds", 10L));
+            long cooldownSeconds = Math.max(0L, section.getLong("cooldownSeconds", 60L));
+            int slowChecksPerSecond = Math.max(0, section.getInt("slowChecksPerSecond", 5));
+            long reportIntervalSeconds = Math.max(1L, section.getLong("reportIntervalSeconds", 15L));
+            String floodgatePrefix = section.getString("floodgatePrefix", ".");
+            return new RaidModeSettings(enabled, joinThreshold, windowSeconds, cooldownSeconds, slowChecksPerSecond,
+                    reportIntervalSeconds, floodgatePrefix == null ? "" : floodgatePrefix);
+        }
+    }
+
+    public record PerformanceSettings(int verdictCacheSize, int nameCacheSize, long bypassRefreshSeconds,
+            long dispatchBudgetMicros, int banWritesPerTick) {
+        public static PerformanceSettings from(ConfigurationSection section) {
+            if (section == null) {
+                return new PerformanceSettings(4096, 2048, 30L, 2000L, 2);
+            }
+            int verdictCacheSize = section.getInt("verdictCacheSize", 4096);
+            int nameCacheSize = section.getInt("nameCacheSize", 2048);
+            long bypassRefreshSeconds = section.getLong("bypassRefreshSeconds", 30L);
+            long dispatchBudgetMicros = section.getLong("dispatchBudgetMicros", 2000L);
+            int banWritesPerTick = section.getInt("banWritesPerTick", 2);
+            return new PerformanceSettings(verdictCacheSize, nameCacheSize, bypassRefreshSeconds,
+                    dispatchBudgetMicros, banWritesPerTick);
+        }
+    }
 }
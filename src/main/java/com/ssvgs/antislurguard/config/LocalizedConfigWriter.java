@@ -56,12 +56,26 @@ public final class LocalizedConfigWriter {
         appendKeyValue(sb, 2, "announcementsFile", quote(config.paths().announcementsFile()));
         appendComment(sb, bundle.configComment("paths.languagesDir"), 2);
         appendKeyValue(sb, 2, "languagesDir", quote(config.paths().languagesDir()));
+        appendComment(sb, bundle.configComment("paths.knownBadNamesFile"), 2);
+        appendKeyValue(sb, 2, "knownBadNamesFile", quote(config.paths().knownBadNamesFile()));
+        appendComment(sb, bundle.configComment("paths.mutesFile"), 2);
+        appendKeyValue(sb, 2, "mutesFile", quote(config.paths().mutesFile()));
+        appendComment(sb, bundle.configComment("paths.playerStatsJournalFile"), 2);
+        appendKeyValue(sb, 2, "playerStatsJournalFile", quote(config.paths().playerStatsJournalFile()));
+        appendComment(sb, bundle.configComment("paths.playerStatsDir"), 2);
+        appendKeyValue(sb, 2, "playerStatsDir", quote(config.paths().playerStatsDir()));
+        appendComment(sb, bundle.configComment("paths.playerNameIndexFile"), 2);
+        appendKeyValue(sb, 2, "playerNameIndexFile", quote(config.paths().playerNameIndexFile()));
         sb.append(System.lineSeparator());
 
         appendSectionHeader(sb, bundle.configComment("patterns.header"));
         appendKeyValue(sb, 0, "patterns:", null);
         appendComment(sb, bundle.configComment("patterns.autoVariants"), 2);
         appendKeyValue(sb, 2, "autoVariants", Boolean.toString(config.patternOptions().autoVariants()));
+        appendComment(sb, bundle.configComment("patterns.prefilter"), 2);
+        appendKeyValue(sb, 2, "prefilter", Boolean.toString(config.patternOptions().prefilter()));
+        appendComment(sb, bundle.configComment("patterns.crossMessage"), 2);
+        appendKeyValue(sb, 2, "crossMessage", Boolean.toString(config.patternOptions().crossMessage()));
         sb.append(System.lineSeparator());
 
         appendSectionHeader(sb, bundle.configComment("normalize.header"));
@@ -92,6 +106,11 @@ public final class LocalizedConfigWriter {
         appendKeyValue(sb, 2, "admin:", null);
         appendKeyValue(sb, 4, "enabled", Boolean.toString(config.notifications().admin().enabled()));
         appendKeyValue(sb, 4, "chatMessageKey", quote(config.notifications().admin().chatMessageKey()));
+        appendComment(sb, bundle.configComment("notifications.burstLimit"), 4);
+        appendKeyValue(sb, 4, "burstLimit", Integer.toString(config.notifications().admin().burstLimit()));
+        appendComment(sb, bundle.configComment("notifications.summaryWindowSeconds"), 4);
+        appendKeyValue(sb, 4, "summaryWindowSeconds",
+                Long.toString(config.notifications().admin().summaryWindowSeconds()));
         sb.append(System.lineSeparator());
 
         appendSectionHeader(sb, bundle.configComment("antiSpam.header"));
@@ -101,10 +120,43 @@ public final class LocalizedConfigWriter {
         appendKeyValue(sb, 2, "repeatThreshold", Integer.toString(config.antiSpam().repeatThreshold()));
         appendKeyValue(sb, 2, "slowmodeDurationSeconds", Long.toString(config.antiSpam().slowmodeDurationSeconds()));
         appendKeyValue(sb, 2, "slowmodeCooldownSeconds", Long.toString(config.antiSpam().slowmodeCooldownSeconds()));
+        appendComment(sb, bundle.configComment("antiSpam.similarityBits"), 2);
+        appendKeyValue(sb, 2, "similarityBits", Integer.toString(config.antiSpam().similarityBits()));
+        appendComment(sb, bundle.configComment("antiSpam.historySize"), 2);
+        appendKeyValue(sb, 2, "historySize", Integer.toString(config.antiSpam().historySize()));
         appendKeyValue(sb, 2, "messages:", null);
         appendKeyValue(sb, 4, "playerTriggeredKey", quote(config.antiSpam().messages().playerTriggeredKey()));
         appendKeyValue(sb, 4, "playerCooldownKey", quote(config.antiSpam().messages().playerCooldownKey()));
         appendKeyValue(sb, 4, "adminTriggeredKey", quote(config.antiSpam().messages().adminTriggeredKey()));
+        appendComment(sb, bundle.configComment("antiSpam.globalFlood"), 2);
+        appendKeyValue(sb, 2, "globalFlood:", null);
+        appendKeyValue(sb, 4, "enabled", Boolean.toString(config.antiSpam().globalFlood().enabled()));
+        appendKeyValue(sb, 4, "windowSeconds", Long.toString(config.antiSpam().globalFlood().windowSeconds()));
+        appendComment(sb, bundle.configComment("antiSpam.globalFlood.playerThreshold"), 4);
+        appendKeyValue(sb, 4, "playerThreshold", Integer.toString(config.antiSpam().globalFlood().playerThreshold()));
+        appendComment(sb, bundle.configComment("antiSpam.globalFlood.minLength"), 4);
+        appendKeyValue(sb, 4, "minLength", Integer.toString(config.antiSpam().globalFlood().minLength()));
+        appendComment(sb, bundle.configComment("antiSpam.globalSlowmode"), 2);
+        appendKeyValue(sb, 2, "globalSlowmode:", null);
+        Config.GlobalSlowmodeSettings globalSlowmode = config.antiSpam().globalSlowmode();
+        appendKeyValue(sb, 4, "enabled", Boolean.toString(globalSlowmode.enabled()));
+        appendKeyValue(sb, 4, "windowSeconds", Long.toString(globalSlowmode.windowSeconds()));
+        appendComment(sb, bundle.configComment("antiSpam.globalSlowmode.tightenAboveRate"), 4);
+        appendKeyValue(sb, 4, "tightenAboveRate", Double.toString(globalSlowmode.tightenAboveRate()));
+        appendComment(sb, bundle.configComment("antiSpam.globalSlowmode.relaxBelowRate"), 4);
+        appendKeyValue(sb, 4, "relaxBelowRate", Double.toString(globalSlowmode.relaxBelowRate()));
+        appendKeyValue(sb, 4, "stepSeconds", Long.toString(globalSlowmode.stepSeconds()));
+        appendKeyValue(sb, 4, "maxCooldownSeconds", Long.toString(globalSlowmode.maxCooldownSeconds()));
+        appendKeyValue(sb, 4, "relaxAfterSeconds", Long.toString(globalSlowmode.relaxAfterSeconds()));
+        appendComment(sb, bundle.configComment("antiSpam.caps"), 2);
+        appendKeyValue(sb, 2, "caps:", null);
+        appendKeyValue(sb, 4, "enabled", Boolean.toString(config.antiSpam().caps().enabled()));
+        appendKeyValue(sb, 4, "minLetters", Integer.toString(config.antiSpam().caps().minLetters()));
+        appendKeyValue(sb, 4, "maxUppercasePercent", Integer.toString(config.antiSpam().caps().maxUppercasePercent()));
+        appendComment(sb, bundle.configComment("antiSpam.charFlood"), 2);
+        appendKeyValue(sb, 2, "charFlood:", null);
+        appendKeyValue(sb, 4, "enabled", Boolean.toString(config.antiSpam().charFlood().enabled()));
+        appendKeyValue(sb, 4, "maxRun", Integer.toString(config.antiSpam().charFlood().maxRun()));
         sb.append(System.lineSeparator());
 
         appendSectionHeader(sb, bundle.configComment("placeholders.header"));
@@ -113,6 +165,8 @@ public final class LocalizedConfigWriter {
         appendKeyValue(sb, 0, "punishments:", null);
         appendPunishment(sb, "nickname", config.punishments().nickname());
         appendPunishment(sb, "chat", config.punishments().chat());
+        appendComment(sb, bundle.configComment("punishments.nativeMutes"), 2);
+        appendKeyValue(sb, 2, "nativeMutes", Boolean.toString(config.punishments().nativeMutes()));
         sb.append(System.lineSeparator());
 
         appendSectionHeader(sb, bundle.configComment("stats.header"));
@@ -120,6 +174,10 @@ public final class LocalizedConfigWriter {
         appendKeyValue(sb, 2, "trackChatViolations", Boolean.toString(config.stats().trackChatViolations()));
         appendKeyValue(sb, 2, "autoPermaBanThreshold", Integer.toString(config.stats().autoPermaBanThreshold()));
         appendKeyValue(sb, 2, "autoPermaBanReasonKey", quote(config.stats().autoPermaBanReasonKey()));
+        appendComment(sb, bundle.configComment("stats.journalCompactLines"), 2);
+        appendKeyValue(sb, 2, "journalCompactLines", Integer.toString(config.stats().journalCompactLines()));
+        appendComment(sb, bundle.configComment("stats.residentPlayers"), 2);
+        appendKeyValue(sb, 2, "residentPlayers", Integer.toString(config.stats().residentPlayers()));
         sb.append(System.lineSeparator());
 
         appendSectionHeader(sb, bundle.configComment("essentials.header"));
@@ -143,6 +201,36 @@ public final class LocalizedConfigWriter {
         appendKeyValue(sb, 2, "unmuteCommand", quote(config.management().unmuteCommand()));
         appendComment(sb, bundle.configComment("management.unbanCommand"), 2);
         appendKeyValue(sb, 2, "unbanCommand", quote(config.management().unbanCommand()));
+        sb.append(System.lineSeparator());
+
+        appendSectionHeader(sb, bundle.configComment("raidMode.header"));
+        appendKeyValue(sb, 0, "raidMode:", null);
+        appendKeyValue(sb, 2, "enabled", Boolean.toString(config.raidMode().enabled()));
+        appendComment(sb, bundle.configComment("raidMode.joinThreshold"), 2);
+        appendKeyValue(sb, 2, "joinThreshold", Integer.toString(config.raidMode().joinThreshold()));
+        appendKeyValue(sb, 2, "windowSeconds", Long.toString(config.raidMode().windowSeconds()));
+        appendComment(sb, bundle.configComment("raidMode.cooldownSeconds"), 2);
+        appendKeyValue(sb, 2, "cooldownSeconds", Long.toString(config.raidMode().cooldownSeconds()));
+        appendComment(sb, bundle.configComment("raidMode.slowChecksPerSecond"), 2);
+        appendKeyValue(sb, 2, "slowChecksPerSecond", Integer.toString(config.raidMode().slowChecksPerSecond()));
+        appendComment(sb, bundle.configComment("raidMode.floodgatePrefix"), 2);
+        appendKeyValue(sb, 2, "floodgatePrefix", quote(config.raidMode().floodgatePrefix()));
+        appendComment(sb, bundle.configComment("raidMode.reportIntervalSeconds"), 2);
+        appendKeyValue(sb, 2, "reportIntervalSeconds", Long.toString(config.raidMode().reportIntervalSeconds()));
+        sb.append(System.lineSeparator());
+
+        appendSectionHeader(sb, bundle.configComment("performance.header"));
+        appendKeyValue(sb, 0, "performance:", null);
+        appendComment(sb, bundle.configComment("performance.verdictCacheSize"), 2);
+        appendKeyValue(sb, 2, "verdictCacheSize", Integer.toString(config.performance().verdictCacheSize()));
+        appendComment(sb, bundle.configComment("performance.nameCacheSize"), 2);
+        appendKeyValue(sb, 2, "nameCacheSize", Integer.toString(config.performance().nameCacheSize()));
+        appendComment(sb, bundle.configComment("performance.bypassRefreshSeconds"), 2);
+        appendKeyValue(sb, 2, "bypassRefreshSeconds", Long.toString(config.performance().bypassRefreshSeconds()));
+        appendComment(sb, bundle.configComment("performance.dispatchBudgetMicros"), 2);
+        appendKeyValue(sb, 2, "dispatchBudgetMicros", Long.toString(config.performance().dispatchBudgetMicros()));
+        appendComment(sb, bundle.configComment("performance.banWritesPerTick"), 2);
+        appendKeyValue(sb, 2, "banWritesPerTick", Integer.toString(config.performance().banWritesPerTick()));
 
         try {
             Files.writeString(configPath, sb.toString(), StandardCharsets.UTF_8);
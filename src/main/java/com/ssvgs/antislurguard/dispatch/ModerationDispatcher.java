@@ -0,0 +1,79 @@
+package com.biggiko.antislurguard.dispatch;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import com.biggiko.antislurguard.AntiSlurGuardPlugin;
+
+/**
+ * Collects moderation side effects from any thread and runs them on the main thread from one repeating
+ * task. Each tick spends at most the configured budget; whatever is left waits for the next tick.
+ */
+public final class ModerationDispatcher {
+
+    private final AntiSlurGuardPlugin plugin;
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private volatile long budgetNanos;
+    private BukkitTask drainTask;
+
+    public ModerationDispatcher(AntiSlurGuardPlugin plugin, long budgetMicros) {
+        this.plugin = plugin;
+        setBudget(budgetMicros);
+    }
+
+    public void setBudget(long budgetMicros) {
+        this.budgetNanos = TimeUnit.MICROSECONDS.toNanos(Math.max(100L, budgetMicros));
+    }
+
+    public void start() {
+        if (drainTask == null) {
+            drainTask = Bukkit.getScheduler().runTaskTimer(plugin, this::drainTick, 1L, 1L);
+        }
+    }
+
+    /**
+     * Stops the repeating task and runs everything still queued, so no punishment is lost on shutdown.
+     */
+    public void shutdown() {
+        if (drainTask != null) {
+            drainTask.cancel();
+            drainTask = null;
+        }
+        Runnable action;
+        while ((action = queue.poll()) != null) {
+            run(action);
+        }
+    }
+
+    public void submit(Runnable action) {
+        queue.offer(action);
+    }
+
+    public int pending() {
+        return queue.size();
+    }
+
+    private void drainTick() {
+        long deadline = System.nanoTime() + budgetNanos;
+        Runnable action;
+        while ((action = queue.poll()) != null) {
+            run(action);
+            if (System.nanoTime() >= deadline) {
+                return;
+            }
+        }
+    }
+
+    private void run(Runnable action) {
+        try {
+            action.run();
+        } catch (RuntimeException ex) {
+            plugin.getLogger().log(Level.WARNING, "Ошибка при выполнении модерационного действия", ex);
+        }
+    }
+}
@@ -64,6 +64,23 @@ public final class LanguageBundle {
         return values;
     }
 
+    /**
+     * Every message of this bundle and its fallbacks, with this bundle's values taking precedence.
+     */
+    public Map<String, String> allMessages() {
+        Map<String, String> values = fallback != null ? new HashMap<>(fallback.allMessages()) : new HashMap<>();
+        ConfigurationSection section = yaml != null ? yaml.getConfigurationSection("messages") : null;
+        if (section != null) {
+            for (String key : section.getKeys(false)) {
+                String value = section.getString(key);
+                if (value != null) {
+                    values.put(key, value);
+                }
+            }
+        }
+        return values;
+    }
+
     public void writeMessagesTemplate(Path target) throws IOException {
         Map<String, String> values = messagesSnapshot();
         YamlConfiguration out = new YamlConfiguration();
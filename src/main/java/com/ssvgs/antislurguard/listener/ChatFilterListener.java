@@ -3,7 +3,6 @@ package com.biggiko.antislurguard.listener;
 import java.util.HashMap;
 import java.util.Map;
 
-import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -11,19 +10,26 @@ import org.bukkit.event.Listener;
 
 import com.biggiko.antislurguard.AntiSlurGuardPlugin;
 import com.biggiko.antislurguard.antispam.AntiSpamService;
+import com.biggiko.antislurguard.antispam.GlobalFloodDetector;
 import com.biggiko.antislurguard.config.Config;
+import com.biggiko.antislurguard.normalization.ComponentTextExtractor;
+import com.biggiko.antislurguard.normalization.NormalizationService;
+import com.biggiko.antislurguard.pattern.CrossMessageTracker;
 import com.biggiko.antislurguard.pattern.ExceptionStore;
+import com.biggiko.antislurguard.pattern.FilterVerdict;
 import com.biggiko.antislurguard.pattern.PatternStore;
 import com.biggiko.antislurguard.pattern.PatternStore.PatternMatch;
+import com.biggiko.antislurguard.pattern.SnapshotEpochs;
+import com.biggiko.antislurguard.pattern.VerdictCache;
+import com.biggiko.antislurguard.punishment.MuteStore;
 import com.biggiko.antislurguard.stats.PlayerStatsService;
 
 import io.papermc.paper.event.player.AsyncChatEvent;
-import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
 
 public final class ChatFilterListener implements Listener {
 
     private final AntiSlurGuardPlugin plugin;
-    private final PlainTextComponentSerializer plainSerializer = PlainTextComponentSerializer.plainText();
+    private final ComponentTextExtractor textExtractor = new ComponentTextExtractor();
 
     public ChatFilterListener(AntiSlurGuardPlugin plugin) {
         this.plugin = plugin;
@@ -32,47 +38,65 @@ public final class ChatFilterListener implements Listener {
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
     public void onAsyncChat(AsyncChatEvent event) {
         Player player = event.getPlayer();
-        if (plugin.hasBypass(player.getUniqueId(), player.getName())) {
+        MuteStore.Mute mute = plugin.muteStore().active(player.getUniqueId());
+        if (mute != null) {
+            event.setCancelled(true);
+            notifyMuted(player, mute);
             return;
         }
-        String plain = plainSerializer.serialize(event.message());
-        String normalized = plugin.normalizationService().normalize(plain);
-        ExceptionStore exceptions = plugin.exceptionStore();
-        if (exceptions.findMatch(normalized, plain).isPresent()) {
+        if (plugin.hasBypass(player.getUniqueId(), player.getName())) {
             return;
         }
-        AntiSpamService.CheckResult spamResult = plugin.antiSpamService()
-                .evaluate(player.getUniqueId(), normalized, System.currentTimeMillis());
-        if (spamResult.blocked()) {
-            event.setCancelled(true);
-            handleAntiSpam(player, spamResult);
+        ComponentTextExtractor.ChatText chatText = textExtractor.extract(event.message());
+        String text = chatText.visible();
+        FilterVerdict verdict = evaluate(chatText);
+        CrossMessageTracker tracker = plugin.crossMessageTracker();
+        if (verdict.excepted()) {
+            tracker.reset(player.getUniqueId());
             return;
         }
-        PatternMatch match = plugin.patternStore().findMatch(normalized).orElse(null);
+        long now = System.currentTimeMillis();
+        // Pattern matches are handled before anti-spam so that caps or stretched letters cannot turn a
+        // punishable message into a mere spam block.
+        PatternMatch match = verdict.match() != null
+                ? verdict.match()
+                : tracker.advance(player.getUniqueId(), verdict.normalized(), now);
         if (match == null) {
+            AntiSpamService.CheckResult spamResult = plugin.antiSpamService()
+                    .evaluate(player.getUniqueId(), verdict.features(), now);
+            if (spamResult.blocked()) {
+                event.setCancelled(true);
+                tracker.reset(player.getUniqueId());
+                handleAntiSpam(player, spamResult);
+                return;
+            }
+            checkGlobalFlood(event, player, text, verdict, now);
             return;
         }
+        tracker.reset(player.getUniqueId());
         event.setCancelled(true);
         Config.Punishment punishment = plugin.config().punishments().chat();
         Config.Notifications notifications = plugin.config().notifications();
         plugin.statsService().incrementChatBlocks();
         PlayerStatsService.RecordResult statsRecord = plugin.playerStatsService()
                 .recordChatViolation(player.getUniqueId(), player.getName());
-        plugin.userViolationLogService().recordChat(player.getUniqueId(), player.getName(), plain, match);
+        plugin.userViolationLogService().recordChat(player.getUniqueId(), player.getName(), chatText.full(),
+                match);
 
         Map<String, String> placeholders = Map.of(
                 "player", player.getName(),
                 "type", match.origin().type(),
                 "pattern", match.pattern(),
                 "match", match.match() == null ? "" : match.match(),
-                "original", plain
+                "original", text
         );
 
         var messages = plugin.messages();
         var playerMessage = notifications.player().enabled()
                 ? messages.component(notifications.player().messageKey(), "&7Сообщение не отправлено.", placeholders)
                 : null;
-        var adminMessage = notifications.admin().enabled()
+        var adminMessage = plugin.adminNotifications().hasRecipients()
+                && plugin.adminNotifications().admitChatAlert(player.getUniqueId(), match.pattern())
                 ? messages.component(notifications.admin().chatMessageKey(), "&c[ASG]", placeholders)
                 : null;
 
@@ -81,7 +105,7 @@ public final class ChatFilterListener implements Listener {
                 ? messages.raw(plugin.config().stats().autoPermaBanReasonKey(), "Повторные нарушения правил чата")
                 : "";
 
-        Bukkit.getScheduler().runTask(plugin, () -> {
+        plugin.dispatcher().submit(() -> {
             if (playerMessage != null) {
                 player.sendMessage(playerMessage);
             }
@@ -95,6 +119,71 @@ public final class ChatFilterListener implements Listener {
         });
     }
 
+    /**
+     * Patterns and exceptions see the full text including hidden fields; the spam features are taken from
+     * the visible text only, so a hover tooltip cannot trip the caps or flood rules.
+     */
+    private FilterVerdict evaluate(ComponentTextExtractor.ChatText chatText) {
+        PatternStore patterns = plugin.patternStore();
+        ExceptionStore exceptions = plugin.exceptionStore();
+        long epoch = SnapshotEpochs.combine(patterns.epoch(), exceptions.epoch());
+        VerdictCache<FilterVerdict> cache = plugin.verdictCache();
+        String key = chatText.cacheKey();
+        FilterVerdict cached = cache.get(key, epoch);
+        if (cached != null) {
+            return cached;
+        }
+        NormalizationService normalization = plugin.normalizationService();
+        String text = chatText.full();
+        String normalized = normalization.normalize(text);
+        String exception = exceptions.findMatch(normalized, text).orElse(null);
+        PatternMatch match = exception == null ? patterns.findMatch(normalized).orElse(null) : null;
+        String visibleNormalized = chatText.hasHidden() ? normalization.normalize(chatText.visible()) : normalized;
+        FilterVerdict verdict = new FilterVerdict(normalized,
+                normalization.features(chatText.visible(), visibleNormalized), exception, match);
+        cache.put(key, verdict, epoch);
+        return verdict;
+    }
+
+    private void checkGlobalFlood(AsyncChatEvent event, Player player, String text, FilterVerdict verdict,
+            long now) {
+        GlobalFloodDetector flood = plugin.floodDetector();
+        if (!flood.applies(verdict.features())) {
+            return;
+        }
+        int senders = flood.record(player.getUniqueId(), verdict.features().fingerprint(), now);
+        if (!flood.isFlood(senders)) {
+            return;
+        }
+        event.setCancelled(true);
+        plugin.crossMessageTracker().reset(player.getUniqueId());
+        var playerComponent = plugin.messages().component("player-global-flood",
+                "&eЭто сообщение массово рассылают, оно не отправлено.", Map.of());
+        var adminComponent = plugin.adminNotifications().hasRecipients() && flood.tryAlert(now)
+                ? plugin.messages().component("admin-global-flood-alert",
+                        "&c[ASG] Флуд в чате: {count} игроков отправили «{message}» за {seconds}с.",
+                        Map.of("count", Integer.toString(senders),
+                                "message", text,
+                                "seconds", Long.toString(flood.windowSeconds())))
+                : null;
+        plugin.dispatcher().submit(() -> {
+            if (playerComponent != null) {
+                player.sendMessage(playerComponent);
+            }
+            if (adminComponent != null) {
+                plugin.adminNotifications().broadcast(adminComponent);
+            }
+        });
+    }
+
+    private void notifyMuted(Player player, MuteStore.Mute mute) {
+        var component = mute.permanent()
+                ? plugin.messages().component("player-muted-permanent", "&cВы замьючены.", Map.of())
+                : plugin.messages().component("player-muted", "&cВы замьючены ещё {seconds}s.",
+                        Map.of("seconds", Long.toString(mute.remainingSeconds(System.currentTimeMillis()))));
+        plugin.dispatcher().submit(() -> player.sendMessage(component));
+    }
+
     private void handleAntiSpam(Player player, AntiSpamService.CheckResult result) {
         Config.AntiSpamSettings antiSpam = plugin.config().antiSpam();
         Map<String, String> placeholders = new HashMap<>();
@@ -108,18 +197,25 @@ public final class ChatFilterListener implements Listener {
         if (result.remainingSeconds() > 0) {
             placeholders.put("seconds", Long.toString(result.remainingSeconds()));
         }
-        String playerKey = result.reason() == AntiSpamService.Reason.TRIGGERED
-                ? antiSpam.messages().playerTriggeredKey()
-                : antiSpam.messages().playerCooldownKey();
-        String fallback = result.reason() == AntiSpamService.Reason.TRIGGERED
-                ? "&cВключён медленный режим на {duration}s. Интервал {cooldown}s."
-                : "&eПодождите {seconds}s перед отправкой следующего сообщения.";
+        String playerKey = switch (result.reason()) {
+            case TRIGGERED -> antiSpam.messages().playerTriggeredKey();
+            case CAPS -> "player-caps-blocked";
+            case CHAR_FLOOD -> "player-char-flood-blocked";
+            default -> antiSpam.messages().playerCooldownKey();
+        };
+        String fallback = switch (result.reason()) {
+            case TRIGGERED -> "&cВключён медленный режим на {duration}s. Интервал {cooldown}s.";
+            case CAPS -> "&eСлишком много заглавных букв, сообщение не отправлено.";
+            case CHAR_FLOOD -> "&eСлишком много повторяющихся символов, сообщение не отправлено.";
+            default -> "&eПодождите {seconds}s перед отправкой следующего сообщения.";
+        };
         var playerComponent = plugin.messages().component(playerKey, fallback, placeholders);
         var adminComponent = result.reason() == AntiSpamService.Reason.TRIGGERED
+                && plugin.adminNotifications().hasRecipients()
                 ? plugin.messages().component(antiSpam.messages().adminTriggeredKey(),
                         "&c[ASG] Включён slowmode для {player}.", placeholders)
                 : null;
-        Bukkit.getScheduler().runTask(plugin, () -> {
+        plugin.dispatcher().submit(() -> {
             if (playerComponent != null) {
                 player.sendMessage(playerComponent);
             }
@@ -1,6 +1,8 @@
 package com.biggiko.antislurguard.listener;
 
-import org.bukkit.Bukkit;
+import java.util.Locale;
+import java.util.Map;
+
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
@@ -9,8 +11,12 @@ import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import com.biggiko.antislurguard.AntiSlurGuardPlugin;
 import com.biggiko.antislurguard.config.Config;
 import com.biggiko.antislurguard.pattern.ExceptionStore;
+import com.biggiko.antislurguard.pattern.FilterVerdict;
 import com.biggiko.antislurguard.pattern.PatternStore;
 import com.biggiko.antislurguard.pattern.PatternStore.PatternMatch;
+import com.biggiko.antislurguard.pattern.SnapshotEpochs;
+import com.biggiko.antislurguard.pattern.VerdictCache;
+import com.biggiko.antislurguard.raid.RaidModeService;
 
 public final class NameBlockerListener implements Listener {
 
@@ -22,26 +28,103 @@ public final class NameBlockerListener implements Listener {
 
     @EventHandler(priority = EventPriority.HIGHEST)
     public void onAsyncPlayerPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (plugin.punishmentService().enforcePendingBan(event)) {
+            return;
+        }
         if (plugin.hasBypass(event.getUniqueId(), event.getName())) {
             return;
         }
-        String normalized = plugin.normalizationService().normalize(event.getName());
-        ExceptionStore exceptions = plugin.exceptionStore();
-        if (exceptions.findMatch(normalized, event.getName()).isPresent()) {
+        RaidModeService raidMode = plugin.raidMode();
+        boolean raiding = raidMode.recordJoin();
+        Config.Punishment punishment = plugin.config().punishments().nickname();
+        if (plugin.knownBadNames().contains(event.getName())) {
+            plugin.punishmentService().disallowJoin(event, punishment);
+            plugin.statsService().incrementNameBlocks();
+            raidMode.recordBlocked();
             return;
         }
-        PatternStore patternStore = plugin.patternStore();
-        PatternMatch match = patternStore.findMatch(normalized).orElse(null);
+        FilterVerdict verdict = evaluate(event.getName(), raidMode);
+        if (verdict == null) {
+            event.disallow(AsyncPlayerPreLoginEvent.Result.KICK_OTHER, plugin.messages().component("raid-mode-kick",
+                    "&cServer is busy, please try again in a minute.", Map.of()));
+            raidMode.recordBlocked();
+            return;
+        }
+        PatternMatch match = verdict.match();
         if (match == null) {
             return;
         }
-        Config.Punishment punishment = plugin.config().punishments().nickname();
         plugin.punishmentService().disallowJoin(event, punishment);
         plugin.statsService().incrementNameBlocks();
+        raidMode.recordBlocked();
+        Runnable apply = () -> {
+            plugin.punishmentService().applyPreLogin(punishment, event.getUniqueId(), event.getName(),
+                    match.match(),
+                    match.origin().type(), com.biggiko.antislurguard.runtime.RuntimeSettingsService.Scope.NICKNAME);
+            if (punishment.action() == Config.PunishmentAction.BAN) {
+                plugin.knownBadNames().add(event.getName());
+            }
+        };
+        if (raiding) {
+            raidMode.queuePunishment(apply);
+        } else {
+            plugin.dispatcher().submit(apply);
+        }
+    }
 
-        Bukkit.getScheduler().runTask(plugin, () -> {
-            plugin.punishmentService().applyPreLogin(punishment, event.getName(), match.match(), match.origin().type(),
-                    com.biggiko.antislurguard.runtime.RuntimeSettingsService.Scope.NICKNAME);
-        });
+    /**
+     * Returns {@code null} when the name needs the slow path and raid mode has no permits left for it.
+     */
+    private FilterVerdict evaluate(String name, RaidModeService raidMode) {
+        PatternStore patterns = plugin.patternStore();
+        ExceptionStore exceptions = plugin.exceptionStore();
+        long epoch = SnapshotEpochs.combine(patterns.epoch(), exceptions.epoch());
+        VerdictCache<FilterVerdict> cache = plugin.nameVerdictCache();
+        String key = name.toLowerCase(Locale.ROOT);
+        FilterVerdict cached = cache.get(key, epoch);
+        if (cached != null) {
+            return cached;
+        }
+        FilterVerdict verdict = evaluateAscii(withoutFloodgatePrefix(name), patterns, exceptions);
+        if (verdict == null) {
+            if (!raidMode.tryAcquireSlowCheck()) {
+                return null;
+            }
+            String normalized = plugin.normalizationService().normalize(name);
+            String exception = exceptions.findMatch(normalized, name).orElse(null);
+            PatternMatch match = exception == null ? patterns.findMatch(normalized).orElse(null) : null;
+            verdict = new FilterVerdict(normalized, exception, match);
+        }
+        cache.put(key, verdict, epoch);
+        return verdict;
+    }
+
+    /**
+     * Floodgate prefixes Bedrock names with a character Java names cannot contain, which would otherwise
+     * send every Bedrock player down the slow path and, during a raid, into its permit limit.
+     */
+    private String withoutFloodgatePrefix(String name) {
+        String prefix = plugin.config().raidMode().floodgatePrefix();
+        if (prefix.isEmpty() || name.length() <= prefix.length() || !name.startsWith(prefix)) {
+            return name;
+        }
+        return name.substring(prefix.length());
+    }
+
+    /**
+     * Fast path for regular {@code [A-Za-z0-9_]} names. Exceptions only matter once a pattern matched,
+     * so the common clean name costs one table-driven scan.
+     */
+    private FilterVerdict evaluateAscii(String name, PatternStore patterns, ExceptionStore exceptions) {
+        String normalized = plugin.normalizationService().normalizeName(name);
+        if (normalized == null) {
+            return null;
+        }
+        PatternMatch match = patterns.findNameMatch(normalized).orElse(null);
+        if (match == null) {
+            return new FilterVerdict(normalized, null, null);
+        }
+        String exception = exceptions.findMatch(normalized, name).orElse(null);
+        return new FilterVerdict(normalized, exception, exception == null ? match : null);
     }
 }
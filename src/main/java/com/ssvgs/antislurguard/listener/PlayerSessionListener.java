@@ -0,0 +1,89 @@
+package com.biggiko.antislurguard.listener;
+
+import java.util.Locale;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.server.ServerCommandEvent;
+
+import com.biggiko.antislurguard.AntiSlurGuardPlugin;
+
+/**
+ * Keeps per-player caches in step with joins, quits and permission-relevant changes.
+ */
+public final class PlayerSessionListener implements Listener {
+
+    private final AntiSlurGuardPlugin plugin;
+
+    public PlayerSessionListener(AntiSlurGuardPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() == AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            plugin.playerStatsService().preload(event.getUniqueId(), event.getName());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        plugin.bypassService().refresh(event.getPlayer());
+        plugin.adminNotifications().refresh(event.getPlayer());
+        plugin.playerStatsService().markOnline(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        Player player = event.getPlayer();
+        plugin.bypassService().forget(player);
+        plugin.adminNotifications().forget(player);
+        plugin.crossMessageTracker().reset(player.getUniqueId());
+        plugin.antiSpamService().forget(player.getUniqueId());
+        plugin.playerStatsService().release(player.getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldChange(PlayerChangedWorldEvent event) {
+        plugin.bypassService().refresh(event.getPlayer());
+        plugin.adminNotifications().refresh(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerCommand(PlayerCommandPreprocessEvent event) {
+        String message = event.getMessage();
+        if (changesPermissions(message.startsWith("/") ? message.substring(1) : message)) {
+            plugin.bypassService().queueRefresh();
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onServerCommand(ServerCommandEvent event) {
+        if (changesPermissions(event.getCommand())) {
+            plugin.bypassService().queueRefresh();
+        }
+    }
+
+    private boolean changesPermissions(String command) {
+        String label = command.trim().toLowerCase(Locale.ROOT);
+        int space = label.indexOf(' ');
+        if (space >= 0) {
+            label = label.substring(0, space);
+        }
+        int namespace = label.indexOf(':');
+        if (namespace >= 0) {
+            label = label.substring(namespace + 1);
+        }
+        return switch (label) {
+            case "op", "deop", "lp", "luckperms", "perm", "perms", "permissions", "pex" -> true;
+            default -> false;
+        };
+    }
+}
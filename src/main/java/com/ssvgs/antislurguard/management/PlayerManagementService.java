@@ -12,11 +12,18 @@ public final class PlayerManagementService {
         this.plugin = plugin;
     }
 
+    /**
+     * Clears a built-in mute and also runs the configured unmute command, so mutes applied through
+     * Essentials before native mutes were switched on can still be lifted.
+     */
     public boolean unmute(String playerName) {
-        return executeCommand(plugin.config().management().unmuteCommand(), playerName);
+        boolean removed = plugin.muteStore().unmute(playerName);
+        return executeCommand(plugin.config().management().unmuteCommand(), playerName) || removed;
     }
 
     public boolean unban(String playerName) {
+        plugin.knownBadNames().remove(playerName);
+        plugin.banWriter().cancel(playerName);
         return executeCommand(plugin.config().management().unbanCommand(), playerName);
     }
 
@@ -24,7 +31,7 @@ public final class PlayerManagementService {
         if (template == null || template.isBlank() || playerName == null || playerName.isBlank()) {
             return false;
         }
-        String command = template.replace("{player}", playerName);
+        String command = plugin.templates().command(template).render(name -> "player".equals(name) ? playerName : null);
         Bukkit.dispatchCommand(Bukkit.getConsoleSender(), command);
         return true;
     }
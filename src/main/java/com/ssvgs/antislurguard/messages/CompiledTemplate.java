@@ -0,0 +1,92 @@
+package com.biggiko.antislurguard.messages;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A template split once into literal text and {@code {name}} slots. Rendering is a single pass that
+ * appends literals and looked-up values; a slot without a value keeps its {@code {name}} text.
+ */
+public final class CompiledTemplate {
+
+    private final String[] literals;
+    private final String[] slots;
+
+    private CompiledTemplate(String[] literals, String[] slots) {
+        this.literals = literals;
+        this.slots = slots;
+    }
+
+    public static CompiledTemplate compile(String template) {
+        String source = template != null ? template : "";
+        List<String> literals = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            int end = c == '{' ? slotEnd(source, i) : -1;
+            if (end < 0) {
+                literal.append(c);
+                i++;
+                continue;
+            }
+            literals.add(literal.toString());
+            literal.setLength(0);
+            slots.add(source.substring(i + 1, end));
+            i = end + 1;
+        }
+        literals.add(literal.toString());
+        return new CompiledTemplate(literals.toArray(String[]::new), slots.toArray(String[]::new));
+    }
+
+    public String render(Function<String, String> values) {
+        if (slots.length == 0) {
+            return literals[0];
+        }
+        StringBuilder builder = new StringBuilder(literals[0].length() + 16 * slots.length);
+        builder.append(literals[0]);
+        for (int i = 0; i < slots.length; i++) {
+            appendSlot(builder, slots[i], values);
+            builder.append(literals[i + 1]);
+        }
+        return builder.toString();
+    }
+
+    int slotCount() {
+        return slots.length;
+    }
+
+    String literal(int index) {
+        return literals[index];
+    }
+
+    String slot(int index) {
+        return slots[index];
+    }
+
+    static void appendSlot(StringBuilder builder, String name, Function<String, String> values) {
+        String value = values != null ? values.apply(name) : null;
+        if (value != null) {
+            builder.append(value);
+        } else {
+            builder.append('{').append(name).append('}');
+        }
+    }
+
+    private static int slotEnd(String source, int open) {
+        int i = open + 1;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if (c == '}') {
+                return i > open + 1 ? i : -1;
+            }
+            if (!Character.isLetterOrDigit(c) && c != '_') {
+                return -1;
+            }
+            i++;
+        }
+        return -1;
+    }
+}
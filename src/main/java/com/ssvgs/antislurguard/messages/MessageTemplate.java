@@ -0,0 +1,133 @@
+package com.biggiko.antislurguard.messages;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Function;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import net.kyori.adventure.text.serializer.legacy.LegacyFormat;
+
+/**
+ * Legacy {@code &}-formatted message parsed into components once. The literal parts are deserialized
+ * up front with the formatting that is active at their position; each use only builds the slot
+ * components and joins them with the cached parts.
+ */
+final class MessageTemplate {
+
+    private static final LegacyComponentSerializer LEGACY = LegacyComponentSerializer.legacyAmpersand();
+
+    private final Component constant;
+    private final Component[] parts;
+    private final String[] slots;
+    private final String[] slotPrefixes;
+    private final Style[] slotStyles;
+
+    private MessageTemplate(Component constant, Component[] parts, String[] slots, String[] slotPrefixes,
+            Style[] slotStyles) {
+        this.constant = constant;
+        this.parts = parts;
+        this.slots = slots;
+        this.slotPrefixes = slotPrefixes;
+        this.slotStyles = slotStyles;
+    }
+
+    static MessageTemplate compile(String raw) {
+        CompiledTemplate template = CompiledTemplate.compile(raw);
+        int slotCount = template.slotCount();
+        if (slotCount == 0) {
+            return new MessageTemplate(LEGACY.deserialize(template.literal(0)), null, null, null, null);
+        }
+        Component[] parts = new Component[slotCount + 1];
+        String[] slots = new String[slotCount];
+        String[] prefixes = new String[slotCount];
+        Style[] styles = new Style[slotCount];
+        String prefix = "";
+        for (int i = 0; i <= slotCount; i++) {
+            String literal = template.literal(i);
+            parts[i] = literal.isEmpty() ? null : LEGACY.deserialize(prefix + literal);
+            prefix = activeFormat(prefix, literal);
+            if (i < slotCount) {
+                slots[i] = template.slot(i);
+                prefixes[i] = prefix;
+                styles[i] = style(prefix);
+            }
+        }
+        return new MessageTemplate(null, parts, slots, prefixes, styles);
+    }
+
+    Component render(Function<String, String> values) {
+        if (constant != null) {
+            return constant;
+        }
+        TextComponent.Builder builder = Component.text();
+        for (int i = 0; i < slots.length; i++) {
+            if (parts[i] != null) {
+                builder.append(parts[i]);
+            }
+            builder.append(slot(i, values));
+        }
+        if (parts[slots.length] != null) {
+            builder.append(parts[slots.length]);
+        }
+        return builder.build();
+    }
+
+    private Component slot(int index, Function<String, String> values) {
+        StringBuilder text = new StringBuilder();
+        CompiledTemplate.appendSlot(text, slots[index], values);
+        String value = text.toString();
+        if (value.indexOf('&') >= 0) {
+            // Values may carry their own legacy codes, as they did before templates were compiled.
+            return LEGACY.deserialize(slotPrefixes[index] + value);
+        }
+        return Component.text(value, slotStyles[index]);
+    }
+
+    /**
+     * Legacy codes still in effect after {@code literal}: a color or reset starts over, decorations stack.
+     */
+    private static String activeFormat(String prefix, String literal) {
+        String active = prefix;
+        for (int i = 0; i + 1 < literal.length(); i++) {
+            if (literal.charAt(i) != '&') {
+                continue;
+            }
+            char code = literal.charAt(i + 1);
+            LegacyFormat format = LegacyComponentSerializer.parseChar(code);
+            if (format == null) {
+                continue;
+            }
+            if (format.reset()) {
+                active = "";
+            } else if (format.color() != null) {
+                active = "&" + code;
+            } else {
+                active = active + "&" + code;
+            }
+            i++;
+        }
+        return active;
+    }
+
+    private static Style style(String prefix) {
+        TextColor color = null;
+        Set<TextDecoration> decorations = EnumSet.noneOf(TextDecoration.class);
+        for (int i = 1; i < prefix.length(); i += 2) {
+            LegacyFormat format = LegacyComponentSerializer.parseChar(prefix.charAt(i));
+            if (format == null) {
+                continue;
+            }
+            if (format.color() != null) {
+                color = format.color();
+            } else if (format.decoration() != null) {
+                decorations.add(format.decoration());
+            }
+        }
+        return Style.style(color, decorations.toArray(TextDecoration[]::new));
+    }
+}
@@ -6,27 +6,30 @@ import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.Objects;
+import java.util.function.Function;
 
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.YamlConfiguration;
 
 import com.biggiko.antislurguard.AntiSlurGuardPlugin;
 import com.biggiko.antislurguard.language.LanguageBundle;
 
 import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 
 public final class Messages {
 
     private final AntiSlurGuardPlugin plugin;
     private final Path filePath;
-    private YamlConfiguration yaml;
+    private final TemplateEngine templates;
     private LanguageBundle languageBundle;
+    private volatile Map<String, Entry> entries = Map.of();
 
-    public Messages(AntiSlurGuardPlugin plugin, Path filePath) {
+    public Messages(AntiSlurGuardPlugin plugin, Path filePath, TemplateEngine templates) {
         this.plugin = plugin;
         this.filePath = filePath;
+        this.templates = templates;
     }
 
     public void reload(LanguageBundle bundle) {
@@ -34,38 +37,47 @@ public final class Messages {
         ensureFileExists();
         syncLanguageFile();
         File file = filePath.toFile();
-        this.yaml = YamlConfiguration.loadConfiguration(file);
+        YamlConfiguration yaml = YamlConfiguration.loadConfiguration(file);
+        Map<String, Entry> flattened = new HashMap<>();
+        if (bundle != null) {
+            for (Map.Entry<String, String> message : bundle.allMessages().entrySet()) {
+                flattened.put(message.getKey(), Entry.of(message.getValue()));
+            }
+        }
+        for (String key : yaml.getKeys(true)) {
+            Object value = yaml.get(key);
+            if (value != null && !(value instanceof ConfigurationSection)) {
+                // same as getString: numbers and booleans are messages too
+                flattened.put(key, Entry.of(String.valueOf(value)));
+            }
+        }
+        this.entries = Map.copyOf(flattened);
     }
 
     public Component component(String key, String fallback, Map<String, String> placeholders) {
-        String raw = raw(key, fallback);
-        String withPlaceholders = applyPlaceholders(raw, placeholders);
-        return LegacyComponentSerializer.legacyAmpersand().deserialize(withPlaceholders);
+        Entry entry = entries.get(key);
+        Function<String, String> values = placeholders == null ? null : placeholders::get;
+        if (entry != null) {
+            return entry.template().render(values);
+        }
+        return templates.message(fallback != null ? fallback : "", values);
     }
 
     public String raw(String key, String fallback) {
-        if (yaml != null && yaml.contains(key)) {
-            return yaml.getString(key);
-        }
-        if (languageBundle != null) {
-            String localized = languageBundle.message(key);
-            if (localized != null) {
-                return localized;
-            }
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            return entry.raw();
         }
         return fallback != null ? fallback : "";
     }
 
-    private String applyPlaceholders(String input, Map<String, String> placeholders) {
-        if (input == null || placeholders == null || placeholders.isEmpty()) {
-            return Objects.requireNonNullElse(input, "");
-        }
-        String result = input;
-        for (Map.Entry<String, String> entry : placeholders.entrySet()) {
-            String token = "{" + entry.getKey() + "}";
-            result = result.replace(token, entry.getValue());
+    /**
+     * messages.yml and the language bundle flattened into one table at reload; the file wins.
+     */
+    private record Entry(String raw, MessageTemplate template) {
+        private static Entry of(String raw) {
+            return new Entry(raw, MessageTemplate.compile(raw));
         }
-        return result;
     }
 
     private void ensureFileExists() {
@@ -0,0 +1,40 @@
+package com.biggiko.antislurguard.messages;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import com.biggiko.antislurguard.config.Config;
+
+import net.kyori.adventure.text.Component;
+
+/**
+ * Compiles command templates once per reload and keeps them by their source text. Configured messages
+ * are compiled by {@link Messages} itself; fallback texts are compiled on use and not kept, since
+ * callers may build them from live values.
+ */
+public final class TemplateEngine {
+
+    private final Map<String, CompiledTemplate> commands = new ConcurrentHashMap<>();
+
+    public void precompileCommands(Config config) {
+        Config.EssentialsSettings essentials = config.essentials();
+        Config.ManagementSettings management = config.management();
+        Config.Punishments punishments = config.punishments();
+        for (String template : new String[] { essentials.kickCommand(), essentials.banCommand(),
+                essentials.tempBanCommand(), essentials.muteCommand(), management.unmuteCommand(),
+                management.unbanCommand(), punishments.nickname().command(), punishments.chat().command() }) {
+            if (template != null && !template.isBlank()) {
+                command(template);
+            }
+        }
+    }
+
+    public CompiledTemplate command(String template) {
+        return commands.computeIfAbsent(template, CompiledTemplate::compile);
+    }
+
+    public Component message(String raw, Function<String, String> values) {
+        return MessageTemplate.compile(raw).render(values);
+    }
+}
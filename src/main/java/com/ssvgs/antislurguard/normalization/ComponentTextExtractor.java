@@ -0,0 +1,94 @@
+package com.biggiko.antislurguard.normalization;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TranslatableComponent;
+import net.kyori.adventure.text.TranslationArgument;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+
+/**
+ * Flattens a chat component into one string for the filter: the visible text first, then every hidden
+ * text-bearing field (hover text, hover entity names, click values, insertions) separated by spaces.
+ * The visible part is kept apart as well, for the spam rules and for echoing the message back.
+ */
+public final class ComponentTextExtractor {
+
+    private static final int MAX_DEPTH = 32;
+
+    private final PlainTextComponentSerializer plainSerializer = PlainTextComponentSerializer.plainText();
+
+    public ChatText extract(Component component) {
+        if (component == null) {
+            return ChatText.EMPTY;
+        }
+        StringBuilder builder = new StringBuilder(64);
+        plainSerializer.serialize(builder, component);
+        int visibleLength = builder.length();
+        appendHidden(builder, component, 0);
+        String full = builder.toString();
+        return new ChatText(visibleLength == full.length() ? full : full.substring(0, visibleLength), full);
+    }
+
+    private void appendHidden(StringBuilder builder, Component component, int depth) {
+        if (depth > MAX_DEPTH) {
+            return;
+        }
+        appendField(builder, component.insertion());
+        ClickEvent click = component.clickEvent();
+        if (click != null) {
+            appendField(builder, click.value());
+        }
+        HoverEvent<?> hover = component.hoverEvent();
+        if (hover != null) {
+            Object value = hover.value();
+            if (value instanceof Component text) {
+                appendComponent(builder, text, depth + 1);
+            } else if (value instanceof HoverEvent.ShowEntity entity && entity.name() != null) {
+                appendComponent(builder, entity.name(), depth + 1);
+            }
+        }
+        if (component instanceof TranslatableComponent translatable) {
+            for (TranslationArgument argument : translatable.arguments()) {
+                appendHidden(builder, argument.asComponent(), depth + 1);
+            }
+        }
+        for (Component child : component.children()) {
+            appendHidden(builder, child, depth + 1);
+        }
+    }
+
+    private void appendComponent(StringBuilder builder, Component component, int depth) {
+        builder.append(' ');
+        plainSerializer.serialize(builder, component);
+        appendHidden(builder, component, depth);
+    }
+
+    private void appendField(StringBuilder builder, String value) {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        builder.append(' ').append(value);
+    }
+
+    /**
+     * @param visible what other players see
+     * @param full    {@code visible} followed by the hidden fields; the text patterns are matched against
+     */
+    public record ChatText(String visible, String full) {
+
+        static final ChatText EMPTY = new ChatText("", "");
+
+        public boolean hasHidden() {
+            return full.length() != visible.length();
+        }
+
+        /**
+         * Verdict cache key. Two components with the same full text can split it differently, so the
+         * visible length is part of the key whenever there is hidden text.
+         */
+        public String cacheKey() {
+            return hasHidden() ? visible.length() + ":" + full : full;
+        }
+    }
+}
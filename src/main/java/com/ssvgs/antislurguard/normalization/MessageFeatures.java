@@ -0,0 +1,22 @@
+package com.biggiko.antislurguard.normalization;
+
+/**
+ * Cheap per-message counters gathered in one scan next to normalization, so spam rules read these fields
+ * instead of walking the text again. Counts refer to the visible chat text; {@code normalizedLength} and
+ * {@code fingerprint} (its {@link SimHash}) to the normalized form of it.
+ */
+public record MessageFeatures(int normalizedLength,
+        int letters,
+        int uppercase,
+        int longestRun,
+        long fingerprint) {
+
+    public static final MessageFeatures NONE = new MessageFeatures(0, 0, 0, 0, 0L);
+
+    /**
+     * Share of letters that are upper case, in percent; 0 when there are no letters.
+     */
+    public int uppercasePercent() {
+        return letters == 0 ? 0 : uppercase * 100 / letters;
+    }
+}
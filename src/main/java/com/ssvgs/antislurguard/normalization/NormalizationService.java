@@ -24,12 +24,18 @@ public final class NormalizationService {
 
     private final Config.NormalizeSettings settings;
     private final Transliterator transliterator;
+    private final char[] nameTable = new char[128];
 
     public NormalizationService(Config.NormalizeSettings settings) {
         this.settings = settings;
         this.transliterator = settings.transliterateCyrillic()
                 ? Transliterator.getInstance("Russian-Latin/BGN")
                 : null;
+        for (char c = 0; c < nameTable.length; c++) {
+            if (isNameChar(c)) {
+                nameTable[c] = normalizeNameChar(c);
+            }
+        }
     }
 
     public String normalize(String input) {
@@ -62,6 +68,89 @@ public final class NormalizationService {
         return result;
     }
 
+    /**
+     * Same result as {@link #normalize(String)} for Minecraft names ({@code [A-Za-z0-9_]}), computed from a
+     * per-character table without the Unicode steps, which are no-ops for such input. Returns
+     * {@code null} for anything else.
+     */
+    public String normalizeName(String name) {
+        if (name == null) {
+            return null;
+        }
+        boolean collapse = collapsesRepeats();
+        char[] out = new char[name.length()];
+        int length = 0;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!isNameChar(c)) {
+                return null;
+            }
+            char mapped = nameTable[c];
+            if (mapped == 0 || (collapse && length > 0 && out[length - 1] == mapped)) {
+                continue;
+            }
+            out[length++] = mapped;
+        }
+        return new String(out, 0, length);
+    }
+
+    /**
+     * Collects {@link MessageFeatures} for a message in a single pass over the original text. Runs of
+     * whitespace are ignored when measuring the longest run of one character.
+     */
+    public MessageFeatures features(String input, String normalized) {
+        if (input == null || input.isEmpty()) {
+            return MessageFeatures.NONE;
+        }
+        int letters = 0;
+        int uppercase = 0;
+        int longestRun = 0;
+        int run = 0;
+        char previous = 0;
+        for (int i = 0; i < input.length(); i++) {
+            char c = input.charAt(i);
+            if (Character.isWhitespace(c)) {
+                run = 0;
+                previous = 0;
+                continue;
+            }
+            char folded = Character.toLowerCase(c);
+            run = folded == previous ? run + 1 : 1;
+            previous = folded;
+            longestRun = Math.max(longestRun, run);
+            if (Character.isLetter(c)) {
+                letters++;
+                if (Character.isUpperCase(c)) {
+                    uppercase++;
+                }
+            }
+        }
+        String folded = normalized == null ? "" : normalized;
+        return new MessageFeatures(folded.length(), letters, uppercase, longestRun, SimHash.of(folded));
+    }
+
+    public boolean collapsesRepeats() {
+        return settings.enabled() && settings.collapseRepeats();
+    }
+
+    private char normalizeNameChar(char c) {
+        if (!settings.enabled()) {
+            return c;
+        }
+        char result = settings.caseFold() ? Character.toLowerCase(c) : c;
+        if (settings.leetMappings()) {
+            result = LEET_MAP.getOrDefault(Character.toLowerCase(result), result);
+        }
+        if (settings.stripNonAlnum() && !Character.isLetterOrDigit(result)) {
+            return 0;
+        }
+        return result;
+    }
+
+    private static boolean isNameChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
     private String applyCharacterMap(String input, Map<Character, Character> map) {
         StringBuilder builder = new StringBuilder(input.length());
         for (char c : input.toCharArray()) {
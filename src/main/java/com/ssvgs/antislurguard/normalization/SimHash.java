@@ -0,0 +1,59 @@
+package com.biggiko.antislurguard.normalization;
+
+/**
+ * 64-bit SimHash over overlapping character bigrams of a normalized message. Editing a few characters
+ * only flips a few bits, so near-duplicates are found by Hamming distance instead of equality.
+ */
+public final class SimHash {
+
+    private static final int SHINGLE = 2;
+    private static final long OFFSET = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+
+    private SimHash() {
+    }
+
+    public static long of(CharSequence text) {
+        int length = text.length();
+        if (length == 0) {
+            return 0L;
+        }
+        if (length <= SHINGLE) {
+            return shingleHash(text, 0, length);
+        }
+        int[] weights = new int[64];
+        int shingles = length - SHINGLE + 1;
+        for (int start = 0; start < shingles; start++) {
+            long hash = shingleHash(text, start, start + SHINGLE);
+            for (int bit = 0; bit < 64; bit++) {
+                weights[bit] += (int) ((hash >>> bit) & 1L) * 2 - 1;
+            }
+        }
+        long fingerprint = 0L;
+        for (int bit = 0; bit < 64; bit++) {
+            if (weights[bit] > 0) {
+                fingerprint |= 1L << bit;
+            }
+        }
+        return fingerprint;
+    }
+
+    public static int distance(long first, long second) {
+        return Long.bitCount(first ^ second);
+    }
+
+    private static long shingleHash(CharSequence text, int start, int end) {
+        long hash = OFFSET;
+        for (int i = start; i < end; i++) {
+            hash ^= text.charAt(i);
+            hash *= PRIME;
+        }
+        hash ^= end - start;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -7,13 +7,16 @@ import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.bukkit.Bukkit;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
 
 import com.biggiko.antislurguard.AntiSlurGuardPlugin;
+import com.biggiko.antislurguard.config.Config;
 
 import net.kyori.adventure.text.Component;
 
@@ -23,13 +26,37 @@ public final class AdminNotificationService {
     private final Path filePath;
     private final Map<UUID, AdminSetting> preferences = new HashMap<>();
     private final Object lock = new Object();
+    private final Map<UUID, Player> recipients = new ConcurrentHashMap<>();
+    private final AlertAggregator aggregator;
+    private final long summaryWindowSeconds;
+    private volatile BukkitTask summaryTask;
 
     public AdminNotificationService(AntiSlurGuardPlugin plugin, Path filePath) {
         this.plugin = plugin;
         this.filePath = filePath;
+        Config.AdminNotification settings = plugin.config().notifications().admin();
+        this.aggregator = new AlertAggregator(settings.burstLimit());
+        this.summaryWindowSeconds = settings.summaryWindowSeconds();
         load();
     }
 
+    public void startAggregation() {
+        cancelAggregation();
+        if (summaryWindowSeconds <= 0) {
+            return;
+        }
+        long ticks = summaryWindowSeconds * 20L;
+        summaryTask = Bukkit.getScheduler().runTaskTimer(plugin, this::flushSummary, ticks, ticks);
+    }
+
+    public void cancelAggregation() {
+        if (summaryTask != null) {
+            summaryTask.cancel();
+            summaryTask = null;
+            flushSummary();
+        }
+    }
+
     public void load() {
         synchronized (lock) {
             preferences.clear();
@@ -83,28 +110,81 @@ public final class AdminNotificationService {
             };
             preferences.put(uuid, new AdminSetting(next, name != null ? name : existing.lastKnownName()));
         }
+        Player online = Bukkit.getPlayer(uuid);
+        if (online != null) {
+            refresh(online);
+        }
         saveAsync();
         return new ToggleResult(true, next);
     }
 
     public boolean isEnabled(UUID uuid) {
         synchronized (lock) {
-            return preferences.getOrDefault(uuid, new AdminSetting(true, "")).enabled();
+            AdminSetting setting = preferences.get(uuid);
+            return setting == null || setting.enabled();
+        }
+    }
+
+    /**
+     * Re-checks one online player against the admin permission and their notify preference.
+     */
+    public void refresh(Player player) {
+        String permission = plugin.config().permissions().admin();
+        if (player.isOnline() && player.hasPermission(permission) && isEnabled(player.getUniqueId())) {
+            recipients.put(player.getUniqueId(), player);
+        } else {
+            recipients.remove(player.getUniqueId());
+        }
+    }
+
+    public void forget(Player player) {
+        recipients.remove(player.getUniqueId());
+    }
+
+    public void refreshAll() {
+        Map<UUID, Player> online = new HashMap<>();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            online.put(player.getUniqueId(), player);
+            refresh(player);
         }
+        recipients.keySet().retainAll(online.keySet());
+    }
+
+    /**
+     * Lets callers skip rendering alert components nobody would receive. Safe from any thread.
+     */
+    public boolean hasRecipients() {
+        return !recipients.isEmpty() && plugin.config().notifications().admin().enabled();
+    }
+
+    /**
+     * Decides whether one chat alert is sent on its own or folded into the periodic summary. Safe from
+     * any thread.
+     */
+    public boolean admitChatAlert(UUID player, String pattern) {
+        return summaryTask == null || aggregator.admit(player, pattern);
+    }
+
+    private void flushSummary() {
+        AlertAggregator.Summary summary = aggregator.drain();
+        if (summary == null || recipients.isEmpty()) {
+            return;
+        }
+        Map<String, String> placeholders = Map.of(
+                "count", Long.toString(summary.count()),
+                "players", Integer.toString(summary.players()),
+                "seconds", Long.toString(summaryWindowSeconds),
+                "pattern", summary.topPattern()
+        );
+        broadcast(plugin.messages().component("admin-alert-summary",
+                "&c[ASG] +{count} ({players}) / {seconds}s: {pattern}", placeholders));
     }
 
     public void broadcast(Component component) {
         if (component == null || !plugin.config().notifications().admin().enabled()) {
             return;
         }
-        String permission = plugin.config().permissions().admin();
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            if (!player.hasPermission(permission)) {
-                continue;
-            }
-            if (!isEnabled(player.getUniqueId())) {
-                continue;
-            }
+        for (Player player : recipients.values()) {
             player.sendMessage(component);
         }
     }
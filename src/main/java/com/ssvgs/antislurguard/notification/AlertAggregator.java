@@ -0,0 +1,90 @@
+package com.biggiko.antislurguard.notification;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts chat alerts per summary window. The first {@code burstLimit} alerts of a window are sent as
+ * usual; the rest are only counted and reported together when the window is drained.
+ * <p>
+ * An alert registers with its window before checking that the window is still current, and the drain
+ * waits for registered alerts to finish after swapping the window out, so none is counted into a window
+ * that has already been reported.
+ */
+final class AlertAggregator {
+
+    private final int burstLimit;
+    private final AtomicReference<Window> current = new AtomicReference<>(new Window());
+
+    AlertAggregator(int burstLimit) {
+        this.burstLimit = Math.max(0, burstLimit);
+    }
+
+    /**
+     * Returns {@code true} when the alert should go out on its own, {@code false} when it was folded
+     * into the next summary.
+     */
+    boolean admit(UUID player, String pattern) {
+        while (true) {
+            Window window = current.get();
+            window.writers.incrementAndGet();
+            try {
+                if (current.get() != window) {
+                    continue;
+                }
+                return admit(window, player, pattern);
+            } finally {
+                window.writers.decrementAndGet();
+            }
+        }
+    }
+
+    private boolean admit(Window window, UUID player, String pattern) {
+        if (window.sent.incrementAndGet() <= burstLimit) {
+            return true;
+        }
+        window.folded.increment();
+        if (player != null) {
+            window.players.add(player);
+        }
+        window.patterns.computeIfAbsent(pattern == null ? "" : pattern, key -> new LongAdder()).increment();
+        return false;
+    }
+
+    Summary drain() {
+        Window window = current.getAndSet(new Window());
+        while (window.writers.get() != 0) {
+            Thread.onSpinWait();
+        }
+        long folded = window.folded.sum();
+        if (folded == 0) {
+            return null;
+        }
+        String topPattern = "";
+        long topCount = -1;
+        for (Map.Entry<String, LongAdder> entry : window.patterns.entrySet()) {
+            long count = entry.getValue().sum();
+            if (count > topCount) {
+                topCount = count;
+                topPattern = entry.getKey();
+            }
+        }
+        return new Summary(folded, window.players.size(), topPattern);
+    }
+
+    record Summary(long count, int players, String topPattern) {
+    }
+
+    private static final class Window {
+        private final AtomicInteger writers = new AtomicInteger();
+        private final AtomicInteger sent = new AtomicInteger();
+        private final LongAdder folded = new LongAdder();
+        private final Set<UUID> players = ConcurrentHashMap.newKeySet();
+        private final Map<String, LongAdder> patterns = new ConcurrentHashMap<>();
+    }
+}
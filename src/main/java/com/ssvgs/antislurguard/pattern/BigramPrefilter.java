@@ -0,0 +1,79 @@
+package com.biggiko.antislurguard.pattern;
+
+import java.util.Collection;
+
+/**
+ * Bitmap of case-folded character pairs taken from every simple (non-regex) pattern. A message that
+ * contains none of those pairs cannot hold a literal match, so the literal scan can be skipped.
+ */
+final class BigramPrefilter {
+
+    private static final int INDEX_BITS = 16;
+    private static final BigramPrefilter PASS_THROUGH = new BigramPrefilter(null);
+
+    private final long[] words;
+
+    private BigramPrefilter(long[] words) {
+        this.words = words;
+    }
+
+    static BigramPrefilter passThrough() {
+        return PASS_THROUGH;
+    }
+
+    /**
+     * Builds the bitmap, or returns a pass-through filter when some pattern cannot be described by its
+     * bigrams (single characters, surrogate pairs).
+     */
+    static BigramPrefilter build(Collection<String> literals) {
+        long[] words = new long[(1 << INDEX_BITS) >>> 6];
+        for (String literal : literals) {
+            if (literal.length() < 2) {
+                return PASS_THROUGH;
+            }
+            char previous = CaseFolding.fold(literal.charAt(0));
+            if (Character.isSurrogate(previous)) {
+                return PASS_THROUGH;
+            }
+            for (int i = 1; i < literal.length(); i++) {
+                char current = CaseFolding.fold(literal.charAt(i));
+                if (Character.isSurrogate(current)) {
+                    return PASS_THROUGH;
+                }
+                int index = index(previous, current);
+                words[index >>> 6] |= 1L << index;
+                previous = current;
+            }
+        }
+        return new BigramPrefilter(words);
+    }
+
+    boolean mayMatch(String text) {
+        long[] bitmap = words;
+        if (bitmap == null) {
+            return true;
+        }
+        int length = text.length();
+        if (length < 2) {
+            return false;
+        }
+        char previous = CaseFolding.fold(text.charAt(0));
+        for (int i = 1; i < length; i++) {
+            char current = CaseFolding.fold(text.charAt(i));
+            int index = index(previous, current);
+            if ((bitmap[index >>> 6] & (1L << index)) != 0L) {
+                return true;
+            }
+            previous = current;
+        }
+        return false;
+    }
+
+    boolean isPassThrough() {
+        return words == null;
+    }
+
+    private static int index(char first, char second) {
+        return ((first * 31 + second) * 0x9E3779B1) >>> (32 - INDEX_BITS);
+    }
+}
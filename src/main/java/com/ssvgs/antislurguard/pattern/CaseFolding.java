@@ -0,0 +1,18 @@
+package com.biggiko.antislurguard.pattern;
+
+/**
+ * Character folding with the same equivalence as {@code CASE_INSENSITIVE | UNICODE_CASE}: characters
+ * that the regex engine treats as equal fold to one value.
+ */
+final class CaseFolding {
+
+    private CaseFolding() {
+    }
+
+    static char fold(char c) {
+        if (c < 128) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + 32) : c;
+        }
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+}
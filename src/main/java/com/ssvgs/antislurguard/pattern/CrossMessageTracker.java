@@ -0,0 +1,62 @@
+package com.biggiko.antislurguard.pattern;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.biggiko.antislurguard.pattern.PatternStore.PatternMatch;
+import com.biggiko.antislurguard.pattern.PatternStore.StreamPosition;
+import com.biggiko.antislurguard.pattern.PatternStore.StreamStep;
+
+/**
+ * Keeps where each player's last message left the pattern scan, so a slur split over consecutive
+ * messages is caught when the second half arrives.
+ */
+public final class CrossMessageTracker {
+
+    private final PatternStore patternStore;
+    private final ExceptionStore exceptionStore;
+    private final boolean enabled;
+    private final long windowMillis;
+    private final Map<UUID, PlayerStream> streams = new ConcurrentHashMap<>();
+
+    public CrossMessageTracker(PatternStore patternStore, ExceptionStore exceptionStore, boolean enabled,
+            long windowSeconds) {
+        this.patternStore = patternStore;
+        this.exceptionStore = exceptionStore;
+        this.enabled = enabled;
+        this.windowMillis = Math.max(0L, windowSeconds * 1000L);
+    }
+
+    /**
+     * Feeds a message that passed the single-message checks and returns a match that spans it and the
+     * previous one, or {@code null}.
+     */
+    public PatternMatch advance(UUID uuid, String normalized, long nowMillis) {
+        if (!enabled || uuid == null || windowMillis == 0L || normalized == null || normalized.isEmpty()) {
+            return null;
+        }
+        PlayerStream stream = streams.get(uuid);
+        StreamPosition previous = stream != null && nowMillis - stream.updatedAt() <= windowMillis
+                ? stream.position()
+                : StreamPosition.START;
+        StreamStep step = patternStore.continueStream(previous, normalized);
+        PatternMatch match = step.match();
+        if (match != null) {
+            streams.remove(uuid);
+            String window = previous.tail() + normalized;
+            return exceptionStore.findMatch(window, window).isPresent() ? null : match;
+        }
+        streams.put(uuid, new PlayerStream(step.next(), nowMillis));
+        return null;
+    }
+
+    public void reset(UUID uuid) {
+        if (uuid != null) {
+            streams.remove(uuid);
+        }
+    }
+
+    private record PlayerStream(StreamPosition position, long updatedAt) {
+    }
+}
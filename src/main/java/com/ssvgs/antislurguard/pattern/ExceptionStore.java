@@ -30,6 +30,7 @@ public final class ExceptionStore {
     private volatile List<RegexPattern> regexPatterns = List.of();
     private volatile List<LiteralPattern> literalPatterns = List.of();
     private volatile Set<String> rawEntries = Set.of();
+    private volatile long epoch;
 
     public ExceptionStore(AntiSlurGuardPlugin plugin, Path filePath, NormalizationService normalizationService,
             Config.PatternOptions options) {
@@ -76,6 +77,11 @@ public final class ExceptionStore {
         this.regexPatterns = List.copyOf(loadedRegex);
         this.literalPatterns = List.copyOf(literals);
         this.rawEntries = Set.copyOf(raw);
+        this.epoch = SnapshotEpochs.next();
+    }
+
+    public long epoch() {
+        return epoch;
     }
 
     public Optional<String> findMatch(String normalized, String original) {
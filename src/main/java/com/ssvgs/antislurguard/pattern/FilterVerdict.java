@@ -0,0 +1,19 @@
+package com.biggiko.antislurguard.pattern;
+
+import com.biggiko.antislurguard.normalization.MessageFeatures;
+import com.biggiko.antislurguard.pattern.PatternStore.PatternMatch;
+
+/**
+ * Outcome of the exception and pattern checks for one piece of text, plus the message features used by
+ * the anti-spam rules.
+ */
+public record FilterVerdict(String normalized, MessageFeatures features, String exception, PatternMatch match) {
+
+    public FilterVerdict(String normalized, String exception, PatternMatch match) {
+        this(normalized, MessageFeatures.NONE, exception, match);
+    }
+
+    public boolean excepted() {
+        return exception != null;
+    }
+}
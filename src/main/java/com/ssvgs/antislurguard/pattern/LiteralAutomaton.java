@@ -0,0 +1,184 @@
+package com.biggiko.antislurguard.pattern;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.biggiko.antislurguard.pattern.PatternStore.MatchOrigin;
+
+/**
+ * Aho-Corasick automaton over the case-folded simple patterns. Its state is a single {@code int}, so a
+ * scan can stop at the end of one message and carry on with the next.
+ */
+final class LiteralAutomaton {
+
+    private static final LiteralAutomaton EMPTY = build(List.of());
+
+    private final int[] edgeStart;
+    private final char[] edgeChars;
+    private final int[] edgeTargets;
+    private final int[] fail;
+    private final int[] longest;
+    private final int[] entryIndex;
+    private final List<Entry> entries;
+
+    private LiteralAutomaton(int[] edgeStart, char[] edgeChars, int[] edgeTargets, int[] fail, int[] longest,
+            int[] entryIndex, List<Entry> entries) {
+        this.edgeStart = edgeStart;
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.fail = fail;
+        this.longest = longest;
+        this.entryIndex = entryIndex;
+        this.entries = entries;
+    }
+
+    static LiteralAutomaton empty() {
+        return EMPTY;
+    }
+
+    static LiteralAutomaton build(List<Entry> input) {
+        List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        List<Integer> depth = new ArrayList<>();
+        List<Integer> terminal = new ArrayList<>();
+        List<Entry> entries = new ArrayList<>();
+        children.add(new TreeMap<>());
+        depth.add(0);
+        terminal.add(-1);
+        for (Entry entry : input) {
+            String text = entry.text();
+            if (text.isEmpty()) {
+                continue;
+            }
+            int node = 0;
+            for (int i = 0; i < text.length(); i++) {
+                char c = CaseFolding.fold(text.charAt(i));
+                Integer next = children.get(node).get(c);
+                if (next == null) {
+                    next = children.size();
+                    children.add(new TreeMap<>());
+                    depth.add(i + 1);
+                    terminal.add(-1);
+                    children.get(node).put(c, next);
+                }
+                node = next;
+            }
+            if (terminal.get(node) < 0) {
+                terminal.set(node, entries.size());
+                entries.add(entry);
+            }
+        }
+
+        int size = children.size();
+        int[] edgeStart = new int[size + 1];
+        int edgeCount = 0;
+        for (int node = 0; node < size; node++) {
+            edgeStart[node] = edgeCount;
+            edgeCount += children.get(node).size();
+        }
+        edgeStart[size] = edgeCount;
+        char[] edgeChars = new char[edgeCount];
+        int[] edgeTargets = new int[edgeCount];
+        for (int node = 0; node < size; node++) {
+            int index = edgeStart[node];
+            for (Map.Entry<Character, Integer> edge : children.get(node).entrySet()) {
+                edgeChars[index] = edge.getKey();
+                edgeTargets[index] = edge.getValue();
+                index++;
+            }
+        }
+
+        int[] fail = new int[size];
+        int[] longest = new int[size];
+        int[] entryIndex = new int[size];
+        entryIndex[0] = -1;
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int edge = edgeStart[0]; edge < edgeStart[1]; edge++) {
+            queue.add(edgeTargets[edge]);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            if (terminal.get(node) >= 0) {
+                longest[node] = depth.get(node);
+                entryIndex[node] = terminal.get(node);
+            } else {
+                longest[node] = longest[fail[node]];
+                entryIndex[node] = entryIndex[fail[node]];
+            }
+            for (int edge = edgeStart[node]; edge < edgeStart[node + 1]; edge++) {
+                int child = edgeTargets[edge];
+                char c = edgeChars[edge];
+                int fallback = fail[node];
+                while (fallback != 0 && target(edgeStart, edgeChars, edgeTargets, fallback, c) < 0) {
+                    fallback = fail[fallback];
+                }
+                int candidate = target(edgeStart, edgeChars, edgeTargets, fallback, c);
+                fail[child] = candidate >= 0 && candidate != child ? candidate : 0;
+                queue.add(child);
+            }
+        }
+        return new LiteralAutomaton(edgeStart, edgeChars, edgeTargets, fail, longest, entryIndex,
+                List.copyOf(entries));
+    }
+
+    int step(int state, char input) {
+        char c = CaseFolding.fold(input);
+        int current = state;
+        while (true) {
+            int next = target(edgeStart, edgeChars, edgeTargets, current, c);
+            if (next >= 0) {
+                return next;
+            }
+            if (current == 0) {
+                return 0;
+            }
+            current = fail[current];
+        }
+    }
+
+    int stateCount() {
+        return fail.length;
+    }
+
+    int feed(int state, CharSequence text) {
+        int current = state;
+        for (int i = 0; i < text.length(); i++) {
+            current = step(current, text.charAt(i));
+        }
+        return current;
+    }
+
+    /**
+     * Length of the longest pattern that ends in this state, or 0.
+     */
+    int longestMatch(int state) {
+        return longest[state];
+    }
+
+    Entry entry(int state) {
+        int index = entryIndex[state];
+        return index >= 0 ? entries.get(index) : null;
+    }
+
+    private static int target(int[] edgeStart, char[] edgeChars, int[] edgeTargets, int node, char c) {
+        int low = edgeStart[node];
+        int high = edgeStart[node + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char value = edgeChars[mid];
+            if (value < c) {
+                low = mid + 1;
+            } else if (value > c) {
+                high = mid - 1;
+            } else {
+                return edgeTargets[mid];
+            }
+        }
+        return -1;
+    }
+
+    record Entry(String text, String raw, MatchOrigin origin) {
+    }
+}
@@ -0,0 +1,118 @@
+package com.biggiko.antislurguard.pattern;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Dense automaton over the 37 characters a Minecraft name can hold ({@code a-z}, {@code 0-9},
+ * {@code _}). Built from the same entries as {@link LiteralAutomaton}; entries that contain any other
+ * character can never occur in such a name and are left out. One table lookup per character, no
+ * failure links at match time.
+ */
+final class NameAutomaton {
+
+    static final int ALPHABET = 37;
+
+    private static final byte[] SYMBOLS = new byte[128];
+    private static final char[] SYMBOL_CHARS = new char[ALPHABET];
+    private static final NameAutomaton EMPTY = build(List.of());
+
+    static {
+        Arrays.fill(SYMBOLS, (byte) -1);
+        int index = 0;
+        for (char c = 'a'; c <= 'z'; c++) {
+            SYMBOL_CHARS[index] = c;
+            SYMBOLS[c] = (byte) index;
+            SYMBOLS[c - 32] = (byte) index;
+            index++;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            SYMBOL_CHARS[index] = c;
+            SYMBOLS[c] = (byte) index++;
+        }
+        SYMBOL_CHARS[index] = '_';
+        SYMBOLS['_'] = (byte) index;
+    }
+
+    private final int[] transitions;
+    private final int[] matchLength;
+    private final LiteralAutomaton.Entry[] output;
+
+    private NameAutomaton(int[] transitions, int[] matchLength, LiteralAutomaton.Entry[] output) {
+        this.transitions = transitions;
+        this.matchLength = matchLength;
+        this.output = output;
+    }
+
+    static NameAutomaton empty() {
+        return EMPTY;
+    }
+
+    static NameAutomaton build(List<LiteralAutomaton.Entry> entries) {
+        List<LiteralAutomaton.Entry> accepted = new ArrayList<>();
+        for (LiteralAutomaton.Entry entry : entries) {
+            if (fitsAlphabet(entry.text())) {
+                accepted.add(entry);
+            }
+        }
+        LiteralAutomaton source = LiteralAutomaton.build(accepted);
+        int states = source.stateCount();
+        int[] transitions = new int[states * ALPHABET];
+        int[] matchLength = new int[states];
+        LiteralAutomaton.Entry[] output = new LiteralAutomaton.Entry[states];
+        for (int state = 0; state < states; state++) {
+            for (int symbol = 0; symbol < ALPHABET; symbol++) {
+                transitions[state * ALPHABET + symbol] = source.step(state, SYMBOL_CHARS[symbol]);
+            }
+            matchLength[state] = source.longestMatch(state);
+            output[state] = source.entry(state);
+        }
+        return new NameAutomaton(transitions, matchLength, output);
+    }
+
+    /**
+     * Returns {@code true} when every character of the value is a name character.
+     */
+    static boolean isNameText(CharSequence value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 128 || SYMBOLS[c] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Scans a value that passed {@link #isNameText(CharSequence)}; returns the first match or {@code null}.
+     */
+    Hit find(CharSequence name) {
+        int[] table = transitions;
+        int state = 0;
+        for (int i = 0; i < name.length(); i++) {
+            state = table[state * ALPHABET + SYMBOLS[name.charAt(i)]];
+            int length = matchLength[state];
+            if (length > 0) {
+                return new Hit(output[state], i + 1 - length, i + 1);
+            }
+        }
+        return null;
+    }
+
+    private static boolean fitsAlphabet(String text) {
+        if (text.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = CaseFolding.fold(text.charAt(i));
+            if (c >= 128 || SYMBOLS[c] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    record Hit(LiteralAutomaton.Entry entry, int start, int end) {
+    }
+}
@@ -20,13 +20,14 @@ import com.biggiko.antislurguard.normalization.NormalizationService;
 
 public final class PatternStore {
 
+    private static final int STREAM_TAIL_LENGTH = 32;
+
     private final AntiSlurGuardPlugin plugin;
     private final Path filePath;
     private final NormalizationService normalizationService;
     private final boolean autoVariants;
-    private volatile List<RegexPattern> regexPatterns = List.of();
-    private volatile List<LiteralPattern> literalPatterns = List.of();
-    private volatile Set<String> rawEntries = Set.of();
+    private final boolean prefilterEnabled;
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
 
     public PatternStore(AntiSlurGuardPlugin plugin, Path filePath, NormalizationService normalizationService,
             Config.PatternOptions options) {
@@ -34,13 +35,17 @@ public final class PatternStore {
         this.filePath = filePath;
         this.normalizationService = normalizationService;
         this.autoVariants = options.autoVariants();
+        this.prefilterEnabled = options.prefilter();
     }
 
     public synchronized void reload() {
         Logger logger = plugin.getLogger();
         ensureFileExists();
-        List<RegexPattern> loadedRegex = new ArrayList<>();
+        List<RegexPattern> plainRegex = new ArrayList<>();
+        List<RegexPattern> complexRegex = new ArrayList<>();
         List<LiteralPattern> literals = new ArrayList<>();
+        List<String> prefilterLiterals = new ArrayList<>();
+        List<LiteralAutomaton.Entry> automatonEntries = new ArrayList<>();
         Set<String> raw = new HashSet<>();
         try {
             List<String> lines = Files.readAllLines(filePath, StandardCharsets.UTF_8);
@@ -50,18 +55,26 @@ public final class PatternStore {
                     continue;
                 }
                 raw.add(line);
-                boolean literal = autoVariants && !looksLikeRegex(line);
-                if (literal) {
+                boolean plain = !looksLikeRegex(line);
+                if (autoVariants && plain) {
                     String normalized = normalizationService.normalize(line);
                     if (!normalized.isBlank()) {
                         Pattern normalizedPattern = Pattern.compile(Pattern.quote(normalized),
                                 Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
                         literals.add(new LiteralPattern(line, normalized, normalizedPattern));
+                        prefilterLiterals.add(normalized);
+                        automatonEntries.add(new LiteralAutomaton.Entry(normalized, line, MatchOrigin.LITERAL));
                     }
                 }
                 try {
                     Pattern pattern = Pattern.compile(line, Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
-                    loadedRegex.add(new RegexPattern(line, pattern));
+                    if (plain) {
+                        plainRegex.add(new RegexPattern(line, pattern));
+                        prefilterLiterals.add(line);
+                        automatonEntries.add(new LiteralAutomaton.Entry(line, line, MatchOrigin.REGEX));
+                    } else {
+                        complexRegex.add(new RegexPattern(line, pattern));
+                    }
                 } catch (Exception ex) {
                     int lineNumber = i + 1;
                     logger.warning(() -> "Не удалось скомпилировать regex в строке " + lineNumber + ".");
@@ -70,14 +83,20 @@ public final class PatternStore {
         } catch (IOException ex) {
             logger.severe("Не удалось прочитать файл с шаблонами: " + ex.getMessage());
         }
-        this.regexPatterns = List.copyOf(loadedRegex);
-        this.literalPatterns = List.copyOf(literals);
-        this.rawEntries = Set.copyOf(raw);
-        if (this.regexPatterns.isEmpty() && this.literalPatterns.isEmpty()) {
+        BigramPrefilter prefilter = prefilterEnabled
+                ? BigramPrefilter.build(prefilterLiterals)
+                : BigramPrefilter.passThrough();
+        Snapshot loaded = new Snapshot(SnapshotEpochs.next(), List.copyOf(literals), List.copyOf(plainRegex),
+                List.copyOf(complexRegex), prefilter, LiteralAutomaton.build(automatonEntries),
+                NameAutomaton.build(automatonEntries), Set.copyOf(raw));
+        this.snapshot = loaded;
+        if (loaded.isEmpty()) {
             logger.warning("AntiSlurGuard запущен в безопасном режиме: список шаблонов пуст.");
         } else {
-            logger.info("AntiSlurGuard загрузил " + (this.regexPatterns.size() + this.literalPatterns.size())
-                    + " шаблон(ов).");
+            logger.info("AntiSlurGuard загрузил " + loaded.size() + " шаблон(ов).");
+            if (prefilterEnabled && prefilter.isPassThrough()) {
+                logger.info("Префильтр отключён: есть однобуквенные шаблоны или символы вне BMP.");
+            }
         }
     }
 
@@ -85,13 +104,90 @@ public final class PatternStore {
         if (normalized == null || normalized.isEmpty()) {
             return Optional.empty();
         }
-        for (LiteralPattern literal : literalPatterns) {
-            Matcher matcher = literal.normalizedPattern().matcher(normalized);
-            if (matcher.find()) {
-                return Optional.of(new PatternMatch(literal.raw(), literal.raw(), MatchOrigin.LITERAL));
+        Snapshot current = snapshot;
+        if (current.prefilter().mayMatch(normalized)) {
+            for (LiteralPattern literal : current.literals()) {
+                Matcher matcher = literal.normalizedPattern().matcher(normalized);
+                if (matcher.find()) {
+                    return Optional.of(new PatternMatch(literal.raw(), literal.raw(), MatchOrigin.LITERAL));
+                }
+            }
+            Optional<PatternMatch> plainMatch = findRegex(current.plainRegex(), normalized);
+            if (plainMatch.isPresent()) {
+                return plainMatch;
+            }
+        }
+        return findRegex(current.complexRegex(), normalized);
+    }
+
+    /**
+     * Name-only variant of {@link #findMatch(String)} for values made of {@code [A-Za-z0-9_]} (see
+     * {@link NormalizationService#normalizeName(String)}). Literal and plain patterns go through the name
+     * automaton; only complex regexes still run. Other values fall back to {@link #findMatch(String)}.
+     */
+    public Optional<PatternMatch> findNameMatch(String normalizedName) {
+        if (normalizedName == null || normalizedName.isEmpty() || !NameAutomaton.isNameText(normalizedName)) {
+            return findMatch(normalizedName);
+        }
+        Snapshot current = snapshot;
+        NameAutomaton.Hit hit = current.names().find(normalizedName);
+        if (hit != null) {
+            LiteralAutomaton.Entry entry = hit.entry();
+            String reported = entry.origin() == MatchOrigin.LITERAL
+                    ? entry.raw()
+                    : normalizedName.substring(hit.start(), hit.end());
+            return Optional.of(new PatternMatch(entry.raw(), reported, entry.origin()));
+        }
+        return findRegex(current.complexRegex(), normalizedName);
+    }
+
+    /**
+     * Continues matching from where the previous message of the same player stopped. Only matches that
+     * start in the previous message are reported; anything inside the new message is left to
+     * {@link #findMatch(String)}.
+     */
+    public StreamStep continueStream(StreamPosition previous, String normalized) {
+        Snapshot current = snapshot;
+        LiteralAutomaton automaton = current.automaton();
+        String tail = previous.tail();
+        int offset = 0;
+        if (!tail.isEmpty() && !normalized.isEmpty() && normalizationService.collapsesRepeats()
+                && tail.charAt(tail.length() - 1) == normalized.charAt(0)) {
+            offset = 1;
+        }
+        int state = previous.epoch() == current.epoch() ? previous.state() : automaton.feed(0, tail);
+        for (int i = offset; i < normalized.length(); i++) {
+            state = automaton.step(state, normalized.charAt(i));
+            int length = automaton.longestMatch(state);
+            int consumed = i - offset + 1;
+            if (length > consumed) {
+                LiteralAutomaton.Entry entry = automaton.entry(state);
+                int fromTail = Math.min(tail.length(), length - consumed);
+                String matched = tail.substring(tail.length() - fromTail) + normalized.substring(offset, i + 1);
+                String reported = entry.origin() == MatchOrigin.LITERAL ? entry.raw() : matched;
+                return new StreamStep(new PatternMatch(entry.raw(), reported, entry.origin()), previous);
+            }
+        }
+        String window = tail + normalized.substring(offset);
+        if (!tail.isEmpty()) {
+            for (RegexPattern pattern : current.complexRegex()) {
+                Matcher matcher = pattern.pattern().matcher(window);
+                while (matcher.find() && matcher.start() < tail.length()) {
+                    if (matcher.end() > tail.length()) {
+                        return new StreamStep(new PatternMatch(pattern.raw(), matcher.group(), MatchOrigin.REGEX),
+                                previous);
+                    }
+                }
             }
         }
-        for (RegexPattern pattern : regexPatterns) {
+        String nextTail = window.length() > STREAM_TAIL_LENGTH
+                ? window.substring(window.length() - STREAM_TAIL_LENGTH)
+                : window;
+        return new StreamStep(null, new StreamPosition(current.epoch(), state, nextTail));
+    }
+
+    private Optional<PatternMatch> findRegex(List<RegexPattern> patterns, String normalized) {
+        for (RegexPattern pattern : patterns) {
             Matcher matcher = pattern.pattern().matcher(normalized);
             if (matcher.find()) {
                 String match = matcher.group();
@@ -102,7 +198,11 @@ public final class PatternStore {
     }
 
     public boolean isEmpty() {
-        return regexPatterns.isEmpty() && literalPatterns.isEmpty();
+        return snapshot.isEmpty();
+    }
+
+    public long epoch() {
+        return snapshot.epoch();
     }
 
     public synchronized boolean appendPattern(String pattern) {
@@ -110,7 +210,7 @@ public final class PatternStore {
             return false;
         }
         String trimmed = pattern.trim();
-        if (rawEntries.contains(trimmed)) {
+        if (snapshot.rawEntries().contains(trimmed)) {
             return false;
         }
         try {
@@ -128,7 +228,7 @@ public final class PatternStore {
         if (value == null) {
             return false;
         }
-        return rawEntries.contains(value.trim());
+        return snapshot.rawEntries().contains(value.trim());
     }
 
     public synchronized boolean removePattern(String pattern) {
@@ -188,12 +288,35 @@ public final class PatternStore {
     public record PatternMatch(String pattern, String match, MatchOrigin origin) {
     }
 
+    public record StreamPosition(long epoch, int state, String tail) {
+        public static final StreamPosition START = new StreamPosition(0L, 0, "");
+    }
+
+    public record StreamStep(PatternMatch match, StreamPosition next) {
+    }
+
     private record LiteralPattern(String raw, String normalized, Pattern normalizedPattern) {
     }
 
     private record RegexPattern(String raw, Pattern pattern) {
     }
 
+    private record Snapshot(long epoch, List<LiteralPattern> literals, List<RegexPattern> plainRegex,
+            List<RegexPattern> complexRegex, BigramPrefilter prefilter, LiteralAutomaton automaton,
+            NameAutomaton names, Set<String> rawEntries) {
+
+        private static final Snapshot EMPTY = new Snapshot(0L, List.of(), List.of(), List.of(),
+                BigramPrefilter.passThrough(), LiteralAutomaton.empty(), NameAutomaton.empty(), Set.of());
+
+        private boolean isEmpty() {
+            return literals.isEmpty() && plainRegex.isEmpty() && complexRegex.isEmpty();
+        }
+
+        private int size() {
+            return literals.size() + plainRegex.size() + complexRegex.size();
+        }
+    }
+
     public enum MatchOrigin {
         REGEX("regex"),
         LITERAL("literal");
@@ -0,0 +1,26 @@
+package com.biggiko.antislurguard.pattern;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out a fresh epoch for every pattern or exception reload, unique across plugin reloads.
+ */
+public final class SnapshotEpochs {
+
+    private static final AtomicLong COUNTER = new AtomicLong();
+
+    private SnapshotEpochs() {
+    }
+
+    static long next() {
+        return COUNTER.incrementAndGet();
+    }
+
+    /**
+     * Both halves come from one counter that only grows, so a combined epoch is larger than every one
+     * handed out before it.
+     */
+    public static long combine(long patternEpoch, long exceptionEpoch) {
+        return (patternEpoch << 32) ^ exceptionEpoch;
+    }
+}
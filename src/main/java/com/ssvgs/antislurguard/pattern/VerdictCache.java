@@ -0,0 +1,179 @@
+package com.biggiko.antislurguard.pattern;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of filter verdicts, split into lock stripes that each run a segmented LRU. Entries are
+ * tagged with the snapshot epoch they were computed against and count as misses once it changes. Epochs
+ * only move forward: a caller still working against an older snapshot neither reads nor stores entries.
+ */
+public final class VerdictCache<V> {
+
+    private static final int STRIPES = 16;
+
+    private final Stripe<V>[] stripes;
+    private final int capacity;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final AtomicLong currentEpoch = new AtomicLong(Long.MIN_VALUE);
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public VerdictCache(int capacity) {
+        this.capacity = Math.max(0, capacity);
+        int perStripe = Math.max(2, this.capacity / STRIPES);
+        this.stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe<>(perStripe, evictions);
+        }
+    }
+
+    public boolean enabled() {
+        return capacity > 0;
+    }
+
+    public V get(String key, long epoch) {
+        if (capacity == 0 || key == null) {
+            return null;
+        }
+        V value = advanceEpoch(epoch) ? stripeFor(key).get(key, epoch) : null;
+        if (value != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return value;
+    }
+
+    public void put(String key, V value, long epoch) {
+        if (capacity == 0 || key == null || value == null) {
+            return;
+        }
+        if (advanceEpoch(epoch)) {
+            stripeFor(key).put(key, value, epoch);
+        }
+    }
+
+    public void clear() {
+        for (Stripe<V> stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    public Stats stats() {
+        int size = 0;
+        for (Stripe<V> stripe : stripes) {
+            size += stripe.size();
+        }
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), size, capacity);
+    }
+
+    /**
+     * Moves the cache to {@code epoch} if it is newer, dropping every entry of the old one.
+     *
+     * @return {@code false} when {@code epoch} is older than the current one
+     */
+    private boolean advanceEpoch(long epoch) {
+        long current;
+        while (epoch > (current = currentEpoch.get())) {
+            if (currentEpoch.compareAndSet(current, epoch)) {
+                clear();
+                return true;
+            }
+        }
+        return epoch == current;
+    }
+
+    private Stripe<V> stripeFor(String key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return stripes[hash & (STRIPES - 1)];
+    }
+
+    public record Stats(long hits, long misses, long evictions, int size, int capacity) {
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+
+    private record Entry<V>(V value, long epoch) {
+    }
+
+    /**
+     * New keys land in probation; a second hit promotes them to the protected segment, so one-off
+     * messages cannot flush the frequently repeated ones.
+     */
+    private static final class Stripe<V> {
+        private final int protectedCapacity;
+        private final int probationCapacity;
+        private final LongAdder evictions;
+        private final LinkedHashMap<String, Entry<V>> probation = new LinkedHashMap<>(16, 0.75f, true);
+        private final LinkedHashMap<String, Entry<V>> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+
+        private Stripe(int capacity, LongAdder evictions) {
+            this.probationCapacity = Math.max(1, capacity / 5);
+            this.protectedCapacity = Math.max(1, capacity - probationCapacity);
+            this.evictions = evictions;
+        }
+
+        private synchronized V get(String key, long epoch) {
+            Entry<V> entry = protectedSegment.get(key);
+            if (entry != null) {
+                if (entry.epoch() == epoch) {
+                    return entry.value();
+                }
+                protectedSegment.remove(key);
+                return null;
+            }
+            entry = probation.remove(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.epoch() != epoch) {
+                return null;
+            }
+            protectedSegment.put(key, entry);
+            if (protectedSegment.size() > protectedCapacity) {
+                Iterator<Map.Entry<String, Entry<V>>> eldest = protectedSegment.entrySet().iterator();
+                Map.Entry<String, Entry<V>> demoted = eldest.next();
+                eldest.remove();
+                probation.put(demoted.getKey(), demoted.getValue());
+                trimProbation();
+            }
+            return entry.value();
+        }
+
+        private synchronized void put(String key, V value, long epoch) {
+            Entry<V> entry = new Entry<>(value, epoch);
+            if (protectedSegment.containsKey(key)) {
+                protectedSegment.put(key, entry);
+                return;
+            }
+            probation.put(key, entry);
+            trimProbation();
+        }
+
+        private void trimProbation() {
+            Iterator<Map.Entry<String, Entry<V>>> iterator = probation.entrySet().iterator();
+            while (probation.size() > probationCapacity && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+                evictions.increment();
+            }
+        }
+
+        private synchronized void clear() {
+            probation.clear();
+            protectedSegment.clear();
+        }
+
+        private synchronized int size() {
+            return probation.size() + protectedSegment.size();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.biggiko.antislurguard.punishment;
+
+import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.bukkit.BanList;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import com.biggiko.antislurguard.AntiSlurGuardPlugin;
+
+/**
+ * Queues name bans and writes them to the server ban list a few per tick. Every {@code addBan} rewrites
+ * banned-players.json, so a raid with hundreds of bans is spread over several ticks and repeated bans of
+ * one name collapse into one write. Queued bans are visible through {@link #pending(String)} until
+ * written, so pre-login can enforce them early.
+ */
+public final class BanWriter {
+
+    private static final String SOURCE = "AntiSlurGuard";
+
+    private final AntiSlurGuardPlugin plugin;
+    private final int writesPerTick;
+    private final Map<String, PendingBan> pending = new ConcurrentHashMap<>();
+    private final Queue<String> order = new ConcurrentLinkedQueue<>();
+    private BukkitTask task;
+
+    public BanWriter(AntiSlurGuardPlugin plugin, int writesPerTick) {
+        this.plugin = plugin;
+        this.writesPerTick = Math.max(1, writesPerTick);
+    }
+
+    public void start() {
+        if (task == null) {
+            task = Bukkit.getScheduler().runTaskTimer(plugin, () -> flush(writesPerTick), 1L, 1L);
+        }
+    }
+
+    /**
+     * Stops the flush task and writes everything still queued.
+     */
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        flush(Integer.MAX_VALUE);
+    }
+
+    public void queue(String playerName, String reason, Date expires) {
+        if (playerName == null || playerName.isBlank()) {
+            return;
+        }
+        String key = playerName.toLowerCase(Locale.ROOT);
+        if (pending.put(key, new PendingBan(playerName, reason, expires)) == null) {
+            order.offer(key);
+        }
+    }
+
+    /**
+     * Returns the queued, not yet written and not yet expired ban for this name, or {@code null}. Safe
+     * from any thread.
+     */
+    public PendingBan pending(String playerName) {
+        if (playerName == null || pending.isEmpty()) {
+            return null;
+        }
+        PendingBan ban = pending.get(playerName.toLowerCase(Locale.ROOT));
+        if (ban == null || ban.expired(System.currentTimeMillis())) {
+            return null;
+        }
+        return ban;
+    }
+
+    public boolean cancel(String playerName) {
+        return playerName != null && pending.remove(playerName.toLowerCase(Locale.ROOT)) != null;
+    }
+
+    public int size() {
+        return pending.size();
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private void flush(int limit) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        BanList banList = Bukkit.getBanList(BanList.Type.NAME);
+        long now = System.currentTimeMillis();
+        int written = 0;
+        String key;
+        while (written < limit && (key = order.poll()) != null) {
+            PendingBan ban = pending.get(key);
+            if (ban == null) {
+                continue;
+            }
+            if (!ban.expired(now)) {
+                banList.addBan(ban.playerName(), ban.reason(), ban.expires(), SOURCE);
+                written++;
+            }
+            if (!pending.remove(key, ban)) {
+                order.offer(key);
+            }
+        }
+    }
+
+    public record PendingBan(String playerName, String reason, Date expires) {
+        boolean expired(long now) {
+            return expires != null && expires.getTime() <= now;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.biggiko.antislurguard.punishment;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.BanList;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import com.biggiko.antislurguard.AntiSlurGuardPlugin;
+
+/**
+ * Lower-cased nicknames that were already banned for matching a pattern. Pre-login rejects them with a
+ * single set lookup. A name is added on the main thread once its ban is queued in {@link BanWriter};
+ * {@code /asg unban} takes it back out, and a periodic main-thread sweep drops names whose ban is gone
+ * otherwise ({@code /pardon}, Essentials, an edited banned-players.json, an expired ban). The ban list is
+ * only ever read on the main thread. File writes run off the calling thread.
+ */
+public final class KnownBadNames {
+
+    private static final long SWEEP_TICKS = 100L;
+
+    private final AntiSlurGuardPlugin plugin;
+    private final Path filePath;
+    private final Set<String> names = ConcurrentHashMap.newKeySet();
+    private final Object fileLock = new Object();
+    private BukkitTask sweepTask;
+
+    public KnownBadNames(AntiSlurGuardPlugin plugin, Path filePath) {
+        this.plugin = plugin;
+        this.filePath = filePath;
+    }
+
+    public synchronized void load() {
+        names.clear();
+        if (!Files.exists(filePath)) {
+            return;
+        }
+        try {
+            for (String line : Files.readAllLines(filePath, StandardCharsets.UTF_8)) {
+                String name = line.trim();
+                if (!name.isEmpty() && !name.startsWith("#")) {
+                    names.add(name.toLowerCase(Locale.ROOT));
+                }
+            }
+        } catch (IOException ex) {
+            plugin.getLogger().severe("Не удалось прочитать список забаненных ников: " + ex.getMessage());
+        }
+    }
+
+    public boolean contains(String name) {
+        return name != null && !names.isEmpty() && names.contains(name.toLowerCase(Locale.ROOT));
+    }
+
+    public void start() {
+        cancel();
+        sweepTask = Bukkit.getScheduler().runTaskTimer(plugin, this::sweep, SWEEP_TICKS, SWEEP_TICKS);
+    }
+
+    public void cancel() {
+        if (sweepTask != null) {
+            sweepTask.cancel();
+            sweepTask = null;
+        }
+    }
+
+    /**
+     * Forgets names that are neither waiting in {@link BanWriter} nor on the name ban list any more.
+     * Runs on the main thread, like the ban writer, so a queued ban is never mistaken for a pardon.
+     */
+    private void sweep() {
+        if (names.isEmpty()) {
+            return;
+        }
+        BanList<?> banList = Bukkit.getBanList(BanList.Type.NAME);
+        if (banList == null) {
+            return;
+        }
+        BanWriter banWriter = plugin.banWriter();
+        for (String name : List.copyOf(names)) {
+            if (banWriter.pending(name) == null && !banList.isBanned(name)) {
+                remove(name);
+            }
+        }
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    public synchronized void add(String name) {
+        if (name == null || name.isBlank()) {
+            return;
+        }
+        String lower = name.trim().toLowerCase(Locale.ROOT);
+        if (!names.add(lower)) {
+            return;
+        }
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            synchronized (fileLock) {
+                if (!names.contains(lower)) {
+                    return;
+                }
+                try {
+                    if (filePath.getParent() != null) {
+                        Files.createDirectories(filePath.getParent());
+                    }
+                    Files.writeString(filePath, lower + System.lineSeparator(), StandardCharsets.UTF_8,
+                            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                } catch (IOException ex) {
+                    plugin.getLogger().severe("Не удалось сохранить забаненный ник: " + ex.getMessage());
+                }
+            }
+        });
+    }
+
+    public synchronized boolean remove(String name) {
+        if (name == null || !names.remove(name.trim().toLowerCase(Locale.ROOT))) {
+            return false;
+        }
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            synchronized (fileLock) {
+                List<String> lines = new ArrayList<>(names);
+                try {
+                    Files.write(filePath, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                            StandardOpenOption.TRUNCATE_EXISTING);
+                } catch (IOException ex) {
+                    plugin.getLogger().severe("Не удалось обновить список забаненных ников: " + ex.getMessage());
+                }
+            }
+        });
+        return true;
+    }
+}
@@ -0,0 +1,172 @@
+package com.biggiko.antislurguard.punishment;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import com.biggiko.antislurguard.AntiSlurGuardPlugin;
+
+/**
+ * Built-in mutes: UUID to expiry, checked by the chat listener before any filtering. Changes are
+ * written to disk asynchronously; each write takes the latest state, so out-of-order saves cannot
+ * resurrect an old one.
+ */
+public final class MuteStore {
+
+    private final AntiSlurGuardPlugin plugin;
+    private final Path filePath;
+    private final Map<UUID, Mute> mutes = new ConcurrentHashMap<>();
+    private final Object fileLock = new Object();
+    private boolean closed;
+
+    public MuteStore(AntiSlurGuardPlugin plugin, Path filePath) {
+        this.plugin = plugin;
+        this.filePath = filePath;
+    }
+
+    public void load() {
+        mutes.clear();
+        File file = filePath.toFile();
+        if (!file.exists()) {
+            return;
+        }
+        YamlConfiguration yaml = YamlConfiguration.loadConfiguration(file);
+        ConfigurationSection section = yaml.getConfigurationSection("mutes");
+        if (section == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (String key : section.getKeys(false)) {
+            try {
+                UUID uuid = UUID.fromString(key);
+                ConfigurationSection entry = section.getConfigurationSection(key);
+                if (entry == null) {
+                    continue;
+                }
+                Mute mute = new Mute(entry.getString("name", ""), entry.getLong("expiresAt", 0L));
+                if (!mute.expired(now)) {
+                    mutes.put(uuid, mute);
+                }
+            } catch (IllegalArgumentException ignored) {
+                plugin.getLogger().warning("Пропускаю некорректный UUID в mutes.yml: " + key);
+            }
+        }
+    }
+
+    /**
+     * @param durationSeconds mute length, or 0 for a permanent mute
+     */
+    public void mute(UUID uuid, String name, long durationSeconds) {
+        if (uuid == null) {
+            return;
+        }
+        long expiresAt = durationSeconds > 0 ? System.currentTimeMillis() + durationSeconds * 1000L : 0L;
+        mutes.put(uuid, new Mute(name != null ? name : "", expiresAt));
+        saveAsync();
+    }
+
+    /**
+     * Returns the active mute, or {@code null}. Expired entries are dropped on the way. Safe from any
+     * thread.
+     */
+    public Mute active(UUID uuid) {
+        if (uuid == null || mutes.isEmpty()) {
+            return null;
+        }
+        Mute mute = mutes.get(uuid);
+        if (mute == null) {
+            return null;
+        }
+        if (mute.expired(System.currentTimeMillis())) {
+            if (mutes.remove(uuid, mute)) {
+                saveAsync();
+            }
+            return null;
+        }
+        return mute;
+    }
+
+    public boolean unmute(String name) {
+        if (name == null || name.isBlank()) {
+            return false;
+        }
+        boolean removed = false;
+        Iterator<Mute> iterator = mutes.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().name().equalsIgnoreCase(name)) {
+                iterator.remove();
+                removed = true;
+            }
+        }
+        if (removed) {
+            saveAsync();
+        }
+        return removed;
+    }
+
+    private void saveAsync() {
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, this::save);
+    }
+
+    /**
+     * Writes the current state synchronously and stops any later async save of this instance, so a
+     * store created by a reload reads the latest file and is never overwritten by this one.
+     */
+    public void shutdown() {
+        synchronized (fileLock) {
+            save();
+            closed = true;
+        }
+    }
+
+    private void save() {
+        synchronized (fileLock) {
+            if (closed) {
+                return;
+            }
+            Map<UUID, Mute> snapshot = new HashMap<>(mutes);
+            YamlConfiguration yaml = new YamlConfiguration();
+            ConfigurationSection section = yaml.createSection("mutes");
+            for (Map.Entry<UUID, Mute> entry : snapshot.entrySet()) {
+                ConfigurationSection child = section.createSection(entry.getKey().toString());
+                child.set("name", entry.getValue().name());
+                child.set("expiresAt", entry.getValue().expiresAt());
+            }
+            try {
+                if (filePath.getParent() != null) {
+                    Files.createDirectories(filePath.getParent());
+                }
+                yaml.save(filePath.toFile());
+            } catch (IOException ex) {
+                plugin.getLogger().severe("Не удалось сохранить mutes.yml: " + ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @param expiresAt epoch millis, or 0 for a permanent mute
+     */
+    public record Mute(String name, long expiresAt) {
+        public boolean permanent() {
+            return expiresAt == 0L;
+        }
+
+        public long remainingSeconds(long now) {
+            return permanent() ? 0L : Math.max(1L, (expiresAt - now + 999L) / 1000L);
+        }
+
+        boolean expired(long now) {
+            return expiresAt != 0L && expiresAt <= now;
+        }
+    }
+}
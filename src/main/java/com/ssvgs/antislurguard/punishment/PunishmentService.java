@@ -2,9 +2,8 @@ package com.biggiko.antislurguard.punishment;
 
 import java.time.Instant;
 import java.util.Date;
-import java.util.Map;
+import java.util.UUID;
 
-import org.bukkit.BanList;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
@@ -24,7 +23,8 @@ public final class PunishmentService {
         this.plugin = plugin;
     }
 
-    public void applyPreLogin(Config.Punishment punishment, String playerName, String match, String type, Scope scope) {
+    public void applyPreLogin(Config.Punishment punishment, UUID uniqueId, String playerName, String match, String type,
+            Scope scope) {
         Config.PunishmentAction action = normalizePreLoginAction(punishment.action());
         long duration = effectiveDuration(scope, punishment.durationSeconds());
         String reason = defaultReason(punishment.reason());
@@ -36,13 +36,26 @@ public final class PunishmentService {
             }
             case BAN -> banOffline(playerName, reason, 0L, match, type, false);
             case TEMPBAN -> banOffline(playerName, reason, duration, match, type, false);
-            case MUTE -> mute(playerName, reason, duration, match, type);
+            case MUTE -> mute(uniqueId, playerName, reason, duration, match, type);
             case COMMAND -> runCommand(punishment.command(), playerName, reason, duration, match, type);
             default -> {
             }
         }
     }
 
+    /**
+     * Refuses the join if a ban for this name is still waiting in the {@link BanWriter} queue.
+     */
+    public boolean enforcePendingBan(org.bukkit.event.player.AsyncPlayerPreLoginEvent event) {
+        BanWriter.PendingBan ban = plugin.banWriter().pending(event.getName());
+        if (ban == null) {
+            return false;
+        }
+        event.disallow(org.bukkit.event.player.AsyncPlayerPreLoginEvent.Result.KICK_BANNED,
+                parseReason(defaultReason(ban.reason())));
+        return true;
+    }
+
     public void disallowJoin(org.bukkit.event.player.AsyncPlayerPreLoginEvent event, Config.Punishment punishment) {
         String reason = defaultReason(punishment.reason());
         event.disallow(org.bukkit.event.player.AsyncPlayerPreLoginEvent.Result.KICK_OTHER, reason);
@@ -66,7 +79,7 @@ public final class PunishmentService {
                 player.kick(reasonComponent);
             }
             case COMMAND -> runCommand(punishment.command(), player.getName(), reason, duration, match, type);
-            case MUTE -> mute(player.getName(), reason, duration, match, type);
+            case MUTE -> mute(player.getUniqueId(), player.getName(), reason, duration, match, type);
             case DISALLOW -> player.kick(reasonComponent);
         }
     }
@@ -103,9 +116,8 @@ public final class PunishmentService {
             runCommand(template, playerName, reason, durationSeconds, match, type);
             return;
         }
-        BanList banList = Bukkit.getBanList(BanList.Type.NAME);
         Date expires = durationSeconds > 0 ? Date.from(Instant.now().plusSeconds(durationSeconds)) : null;
-        banList.addBan(playerName, reason, expires, "AntiSlurGuard");
+        plugin.banWriter().queue(playerName, reason, expires);
     }
 
     private void runCommand(String commandTemplate, String playerName, String reason, long durationSeconds,
@@ -113,17 +125,14 @@ public final class PunishmentService {
         if (commandTemplate == null || commandTemplate.isBlank()) {
             return;
         }
-        Map<String, String> replacements = Map.of(
-                "{player}", playerName != null ? playerName : "",
-                "{match}", match != null ? match : "",
-                "{type}", type != null ? type : "",
-                "{reason}", reason != null ? reason : "",
-                "{durationSeconds}", Long.toString(durationSeconds)
-        );
-        String command = commandTemplate;
-        for (Map.Entry<String, String> entry : replacements.entrySet()) {
-            command = command.replace(entry.getKey(), entry.getValue());
-        }
+        String command = plugin.templates().command(commandTemplate).render(name -> switch (name) {
+            case "player" -> playerName != null ? playerName : "";
+            case "match" -> match != null ? match : "";
+            case "type" -> type != null ? type : "";
+            case "reason" -> reason != null ? reason : "";
+            case "durationSeconds" -> Long.toString(durationSeconds);
+            default -> null;
+        });
         Bukkit.dispatchCommand(Bukkit.getConsoleSender(), command);
     }
 
@@ -149,7 +158,12 @@ public final class PunishmentService {
         return essentials != null && essentials.isEnabled();
     }
 
-    private void mute(String playerName, String reason, long durationSeconds, String match, String type) {
+    private void mute(UUID uniqueId, String playerName, String reason, long durationSeconds, String match,
+            String type) {
+        if (plugin.config().punishments().nativeMutes() && uniqueId != null) {
+            plugin.muteStore().mute(uniqueId, playerName, durationSeconds);
+            return;
+        }
         if (shouldUseEssentials()) {
             runCommand(plugin.config().essentials().muteCommand(), playerName, reason, durationSeconds, match, type);
             return;
@@ -0,0 +1,186 @@
+package com.biggiko.antislurguard.raid;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import com.biggiko.antislurguard.AntiSlurGuardPlugin;
+import com.biggiko.antislurguard.config.Config;
+
+/**
+ * Watches the pre-login rate over a sliding window of one-second buckets. While the rate stays above the
+ * threshold the server is in raid mode: slow name checks are rate-limited, nickname punishments are
+ * applied in one batch per second and admins get one periodic report instead of per-name noise.
+ */
+public final class RaidModeService {
+
+    private final AntiSlurGuardPlugin plugin;
+    private final Config.RaidModeSettings settings;
+    private final int[] buckets;
+    private final AtomicInteger currentSecond = new AtomicInteger();
+    private final AtomicInteger slowCheckTokens = new AtomicInteger();
+    private final LongAdder joinsSinceReport = new LongAdder();
+    private final LongAdder blockedSinceReport = new LongAdder();
+    private final Queue<Runnable> pendingPunishments = new ConcurrentLinkedQueue<>();
+    private volatile int windowSum;
+    private volatile boolean active;
+    private int bucketIndex;
+    private long lastOverThreshold;
+    private long lastReport;
+    private BukkitTask task;
+
+    public RaidModeService(AntiSlurGuardPlugin plugin, Config.RaidModeSettings settings) {
+        this.plugin = plugin;
+        this.settings = settings;
+        this.buckets = new int[(int) Math.max(1L, settings.windowSeconds())];
+        this.slowCheckTokens.set(settings.slowChecksPerSecond());
+    }
+
+    public void start() {
+        cancel();
+        if (settings.enabled()) {
+            task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 20L, 20L);
+        }
+    }
+
+    public void cancel() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        flushPunishments();
+    }
+
+    /**
+     * Counts one pre-login attempt and reports whether raid mode is on. Safe from any thread.
+     */
+    public boolean recordJoin() {
+        if (!settings.enabled()) {
+            return false;
+        }
+        int thisSecond = currentSecond.incrementAndGet();
+        if (active) {
+            joinsSinceReport.increment();
+            return true;
+        }
+        if (windowSum + thisSecond >= settings.joinThreshold()) {
+            activate();
+            joinsSinceReport.increment();
+            return true;
+        }
+        return false;
+    }
+
+    public boolean active() {
+        return active;
+    }
+
+    /**
+     * Takes one permit for a check that cannot use the fast name path. Always granted outside raid mode.
+     */
+    public boolean tryAcquireSlowCheck() {
+        if (!active) {
+            return true;
+        }
+        return slowCheckTokens.getAndDecrement() > 0;
+    }
+
+    public void recordBlocked() {
+        if (active) {
+            blockedSinceReport.increment();
+        }
+    }
+
+    /**
+     * Holds a nickname punishment until the next once-per-second batch.
+     */
+    public void queuePunishment(Runnable action) {
+        pendingPunishments.offer(action);
+    }
+
+    private synchronized void activate() {
+        if (active) {
+            return;
+        }
+        active = true;
+        long now = System.currentTimeMillis();
+        lastOverThreshold = now;
+        lastReport = now;
+        plugin.getLogger().warning("Включён режим защиты от рейда: слишком много входов за "
+                + settings.windowSeconds() + "s.");
+        plugin.dispatcher().submit(() -> notifyAdmins("raid-mode-on",
+                "&c[ASG] Raid mode enabled: {joins} joins in {seconds}s.",
+                Map.of("joins", Integer.toString(windowSum + currentSecond.get()),
+                        "seconds", Long.toString(settings.windowSeconds()))));
+    }
+
+    private void tick() {
+        long now = System.currentTimeMillis();
+        int finished = currentSecond.getAndSet(0);
+        bucketIndex = (bucketIndex + 1) % buckets.length;
+        int sum = windowSum + finished - buckets[bucketIndex];
+        buckets[bucketIndex] = finished;
+        windowSum = sum;
+        slowCheckTokens.set(settings.slowChecksPerSecond());
+        flushPunishments();
+        if (!active) {
+            return;
+        }
+        if (sum >= settings.joinThreshold()) {
+            lastOverThreshold = now;
+        }
+        long reportMillis = Math.max(1L, settings.reportIntervalSeconds()) * 1000L;
+        boolean calm = now - lastOverThreshold >= settings.cooldownSeconds() * 1000L;
+        if (calm || now - lastReport >= reportMillis) {
+            report(now);
+        }
+        if (calm) {
+            synchronized (this) {
+                active = false;
+            }
+            plugin.getLogger().info("Режим защиты от рейда выключен.");
+            notifyAdmins("raid-mode-off", "&a[ASG] Raid mode disabled.", Map.of());
+        }
+    }
+
+    private void report(long now) {
+        long seconds = Math.max(1L, (now - lastReport) / 1000L);
+        lastReport = now;
+        long joins = joinsSinceReport.sumThenReset();
+        long blocked = blockedSinceReport.sumThenReset();
+        if (joins == 0 && blocked == 0) {
+            return;
+        }
+        plugin.getLogger().info(() -> String.format("[AntiSlurGuard] Рейд: %d вход(ов), %d заблокировано за %ds",
+                joins, blocked, seconds));
+        notifyAdmins("raid-mode-report", "&c[ASG] Raid: {blocked}/{joins} joins blocked in {seconds}s.",
+                Map.of("joins", Long.toString(joins), "blocked", Long.toString(blocked),
+                        "seconds", Long.toString(seconds)));
+    }
+
+    private void notifyAdmins(String key, String fallback, Map<String, String> placeholders) {
+        if (!plugin.adminNotifications().hasRecipients()) {
+            return;
+        }
+        plugin.adminNotifications().broadcast(plugin.messages().component(key, fallback, placeholders));
+    }
+
+    private void flushPunishments() {
+        if (pendingPunishments.isEmpty()) {
+            return;
+        }
+        List<Runnable> batch = new ArrayList<>();
+        Runnable action;
+        while ((action = pendingPunishments.poll()) != null) {
+            batch.add(action);
+        }
+        plugin.dispatcher().submit(() -> batch.forEach(Runnable::run));
+    }
+}
@@ -0,0 +1,131 @@
+package com.biggiko.antislurguard.stats;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Case-insensitive name-to-UUID map of every player that has a stats record. It is sorted, so prefix
+ * completion is a range scan, and kept in its own file so startup does not have to open every record.
+ * Saving is left to the caller's file lock, like {@link StatsJournal}.
+ */
+final class PlayerNameIndex {
+
+    private final Path path;
+    private final ConcurrentSkipListMap<String, Entry> byName = new ConcurrentSkipListMap<>();
+    private final Map<UUID, String> keyOf = new ConcurrentHashMap<>();
+    private final AtomicBoolean changed = new AtomicBoolean();
+
+    PlayerNameIndex(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Records the player's current name; a previous name of the same player is dropped. Names are unique
+     * at any one time, so when a second player claims a name already indexed (the first one renamed
+     * away), the latest claim wins and the first player simply has no indexed name until they are seen
+     * again.
+     */
+    void put(UUID uuid, String name) {
+        if (name == null || name.isEmpty()) {
+            return;
+        }
+        String key = name.toLowerCase(Locale.ROOT);
+        Entry current = byName.get(key);
+        if (current != null && current.uuid().equals(uuid) && current.name().equals(name)) {
+            return;
+        }
+        synchronized (this) {
+            String previous = keyOf.put(uuid, key);
+            if (previous != null && !previous.equals(key)) {
+                byName.computeIfPresent(previous, (ignored, entry) -> entry.uuid().equals(uuid) ? null : entry);
+            }
+            Entry displaced = byName.put(key, new Entry(uuid, name));
+            if (displaced != null && !displaced.uuid().equals(uuid)) {
+                keyOf.remove(displaced.uuid(), key);
+            }
+            changed.set(true);
+        }
+    }
+
+    UUID find(String name) {
+        Entry entry = byName.get(name.toLowerCase(Locale.ROOT));
+        return entry != null ? entry.uuid() : null;
+    }
+
+    /**
+     * Names starting with {@code prefix} in alphabetical order, at most {@code limit} of them.
+     */
+    List<String> complete(String prefix, int limit) {
+        String from = prefix.toLowerCase(Locale.ROOT);
+        List<String> names = new ArrayList<>();
+        for (Entry entry : byName.subMap(from, true, from + Character.MAX_VALUE, true).values()) {
+            if (names.size() >= limit) {
+                break;
+            }
+            names.add(entry.name());
+        }
+        return names;
+    }
+
+    /**
+     * @return {@code false} when there is no index file yet and it has to be rebuilt
+     */
+    boolean load() throws IOException {
+        if (!Files.exists(path)) {
+            return false;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int tab = line.indexOf('\t');
+                if (tab <= 0) {
+                    continue;
+                }
+                try {
+                    put(UUID.fromString(line.substring(0, tab)), line.substring(tab + 1));
+                } catch (IllegalArgumentException ignored) {
+                    // damaged line, the journal or a rebuild will bring the name back
+                }
+            }
+        }
+        changed.set(false);
+        return true;
+    }
+
+    void save() throws IOException {
+        if (!changed.getAndSet(false)) {
+            return;
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            for (Entry entry : byName.values()) {
+                writer.write(entry.uuid() + "\t" + entry.name());
+                writer.newLine();
+            }
+        } catch (IOException ex) {
+            changed.set(true);
+            throw ex;
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    int size() {
+        return byName.size();
+    }
+
+    private record Entry(UUID uuid, String name) {
+    }
+}
@@ -0,0 +1,48 @@
+package com.biggiko.antislurguard.stats;
+
+import java.util.UUID;
+
+/**
+ * One player's counters. {@code chatViolations} grows with every change and doubles as the record's
+ * version when two copies of it (cache, journal, disk) have to be reconciled.
+ */
+record PlayerStats(String lastKnownName, int chatViolations, int violationsSinceLastBan, int permanentBans,
+        long lastPermaBanAt) {
+
+    static PlayerStats empty(String name) {
+        return new PlayerStats(name, 0, 0, 0, 0L);
+    }
+
+    static PlayerStats newer(PlayerStats first, PlayerStats second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        return second.chatViolations > first.chatViolations ? second : first;
+    }
+
+    /**
+     * Tab-separated line: uuid, counters, then the name last (Minecraft names contain no tabs).
+     */
+    String toLine(UUID uuid) {
+        return uuid + "\t" + chatViolations + "\t" + violationsSinceLastBan + "\t" + permanentBans + "\t"
+                + lastPermaBanAt + "\t" + (lastKnownName != null ? lastKnownName : "");
+    }
+
+    /**
+     * @throws IllegalArgumentException for a malformed line
+     */
+    static Parsed parse(String line) {
+        String[] parts = line.split("\t", 6);
+        if (parts.length < 6) {
+            throw new IllegalArgumentException("expected 6 fields");
+        }
+        return new Parsed(UUID.fromString(parts[0]), new PlayerStats(parts[5], Integer.parseInt(parts[1]),
+                Integer.parseInt(parts[2]), Integer.parseInt(parts[3]), Long.parseLong(parts[4])));
+    }
+
+    record Parsed(UUID uuid, PlayerStats stats) {
+    }
+}
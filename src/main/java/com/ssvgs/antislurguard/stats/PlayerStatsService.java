@@ -4,171 +4,444 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.time.Instant;
-import java.util.HashMap;
-import java.util.Locale;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.bukkit.Bukkit;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
 
 import com.biggiko.antislurguard.AntiSlurGuardPlugin;
 import com.biggiko.antislurguard.config.Config;
 
+/**
+ * Per-player violation counters. Each player's counters are one immutable {@link PlayerStats} swapped by
+ * compare-and-set, so chat threads never block each other or the saver and the auto-permaban threshold is
+ * crossed exactly once.
+ * <p>
+ * Records live on disk in {@link PlayerStatsStore} and are only brought into memory when needed: at
+ * pre-login, or on demand for {@code /asg stats}. Online players stay resident; offline ones are dropped
+ * least-recently-used first once more than {@code stats.residentPlayers} are held, as soon as their
+ * changes have been compacted. Each slot carries its last access time, so a hit costs one volatile write;
+ * eviction runs as a background pass instead of under a lock on the chat thread.
+ * <p>
+ * Every change appends the player's new counters as one journal line and marks them dirty; once the
+ * journal grows past {@code stats.journalCompactLines} the dirty records are written to their files and
+ * the journal is emptied. Startup only replays the journal. {@code chatViolations} grows with every
+ * change, so the newest copy always wins regardless of line order or a journal that outlived a
+ * compaction.
+ * <p>
+ * Names are resolved through {@link PlayerNameIndex}, which covers every player that has a record, so a
+ * lookup by name or UUID never scans and offenders can be tab-completed by prefix.
+ */
 public final class PlayerStatsService {
 
     private final AntiSlurGuardPlugin plugin;
-    private final Path filePath;
+    private final Path legacyFile;
+    private final PlayerStatsStore store;
+    private final StatsJournal journal;
+    private final PlayerNameIndex names;
     private final Config.StatsSettings settings;
-    private final Map<UUID, PlayerStats> stats = new HashMap<>();
-    private boolean saveScheduled;
+    private final Map<UUID, Slot> resident = new ConcurrentHashMap<>();
+    private final Map<UUID, PlayerStats> dirty = new ConcurrentHashMap<>();
+    private final Set<UUID> online = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean saveScheduled = new AtomicBoolean();
+    private final AtomicBoolean evictionScheduled = new AtomicBoolean();
+    private final Object fileLock = new Object();
 
-    public PlayerStatsService(AntiSlurGuardPlugin plugin, Path filePath, Config.StatsSettings settings) {
+    public PlayerStatsService(AntiSlurGuardPlugin plugin, Path legacyFile, Path directory, Path journalPath,
+            Path nameIndexPath, Config.StatsSettings settings) {
         this.plugin = plugin;
-        this.filePath = filePath;
+        this.legacyFile = legacyFile;
+        this.store = new PlayerStatsStore(directory);
+        this.journal = new StatsJournal(journalPath);
+        this.names = new PlayerNameIndex(nameIndexPath);
         this.settings = settings;
-        load();
+        load(directory);
+    }
+
+    /**
+     * Loads the player's record ahead of their first message. Called from the async pre-login thread;
+     * the record only becomes pinned at {@link #markOnline}, since a later login check may still refuse
+     * the player.
+     */
+    public void preload(UUID uuid, String playerName) {
+        if (slot(uuid, playerName).get().chatViolations() > 0) {
+            names.put(uuid, playerName);
+        }
+    }
+
+    /**
+     * Keeps the player's record resident until {@link #release}. Called on join.
+     */
+    public void markOnline(UUID uuid) {
+        online.add(uuid);
+    }
+
+    /**
+     * Lets the player's record be evicted once the resident limit is reached.
+     */
+    public void release(UUID uuid) {
+        online.remove(uuid);
     }
 
     public RecordResult recordChatViolation(UUID uuid, String playerName) {
         if (!settings.trackChatViolations()) {
             return RecordResult.disabled();
         }
-        PlayerStats data = stats.computeIfAbsent(uuid, id -> new PlayerStats(playerName));
-        data.lastKnownName = playerName;
-        data.chatViolations++;
-        data.violationsSinceLastBan++;
-        boolean reached = settings.autoPermaBanThreshold() > 0
-                && data.violationsSinceLastBan >= settings.autoPermaBanThreshold();
-        boolean triggerBan = reached;
-        if (reached) {
-            data.permanentBans++;
-            data.violationsSinceLastBan = 0;
-            data.lastPermaBanAt = Instant.now().toEpochMilli();
+        int threshold = settings.autoPermaBanThreshold();
+        while (true) {
+            Slot slot = slot(uuid, playerName);
+            PlayerStats current = slot.get();
+            int sinceLastBan = current.violationsSinceLastBan() + 1;
+            boolean reached = threshold > 0 && sinceLastBan >= threshold;
+            PlayerStats next = new PlayerStats(playerName,
+                    current.chatViolations() + 1,
+                    reached ? 0 : sinceLastBan,
+                    reached ? current.permanentBans() + 1 : current.permanentBans(),
+                    reached ? Instant.now().toEpochMilli() : current.lastPermaBanAt());
+            if (commit(uuid, slot, current, next)) {
+                names.put(uuid, playerName);
+                journal.append(next.toLine(uuid));
+                scheduleSave();
+                return new RecordResult(playerName, next.chatViolations(), next.permanentBans(), reached);
+            }
         }
-        scheduleSave();
-        return new RecordResult(playerName, data.chatViolations, data.permanentBans, triggerBan);
     }
 
-    public Optional<PlayerStatsView> findByQuery(String query) {
+    /**
+     * Looks a player up by UUID or by name. May read the player's file, so call it off the main thread;
+     * {@code onlineMatch} is the UUID of the online player with that exact name, resolved by the caller
+     * on the main thread, or {@code null}.
+     */
+    public Optional<PlayerStatsView> findByQuery(String query, UUID onlineMatch) {
         if (query == null || query.isBlank()) {
             return Optional.empty();
         }
-        String normalized = query.trim();
-        String lower = normalized.toLowerCase(Locale.ROOT);
-        for (Map.Entry<UUID, PlayerStats> entry : stats.entrySet()) {
-            PlayerStats value = entry.getValue();
-            if (entry.getKey().toString().equalsIgnoreCase(lower)
-                    || (value.lastKnownName != null && value.lastKnownName.equalsIgnoreCase(normalized))) {
-                return Optional.of(new PlayerStatsView(entry.getKey(), value));
+        UUID uuid = resolve(query.trim(), onlineMatch);
+        if (uuid == null) {
+            return Optional.empty();
+        }
+        Slot slot = resident.get(uuid);
+        PlayerStats data;
+        if (slot != null) {
+            slot.touch();
+            data = slot.get();
+        } else {
+            data = lookup(uuid);
+            if (data == null) {
+                return Optional.empty();
             }
+            Slot loaded = resident.putIfAbsent(uuid, new Slot(data));
+            data = loaded != null ? loaded.get() : data;
+            scheduleEviction();
         }
-        return Optional.empty();
+        return Optional.of(new PlayerStatsView(uuid, data));
     }
 
-    private void load() {
+    private UUID resolve(String query, UUID onlineMatch) {
         try {
-            if (filePath.getParent() != null) {
-                Files.createDirectories(filePath.getParent());
+            return UUID.fromString(query);
+        } catch (IllegalArgumentException ignored) {
+            // not a UUID, treat it as a name
+        }
+        UUID known = names.find(query);
+        return known != null ? known : onlineMatch;
+    }
+
+    /**
+     * Names of players with a record that start with {@code prefix}, for tab completion.
+     */
+    public List<String> completeNames(String prefix, int limit) {
+        return names.complete(prefix == null ? "" : prefix, limit);
+    }
+
+    private Slot slot(UUID uuid, String playerName) {
+        Slot slot = resident.get(uuid);
+        if (slot != null) {
+            slot.touch();
+            return slot;
+        }
+        PlayerStats data = lookup(uuid);
+        Slot created = new Slot(data != null ? data : PlayerStats.empty(playerName));
+        Slot existing = resident.putIfAbsent(uuid, created);
+        scheduleEviction();
+        return existing != null ? existing : created;
+    }
+
+    /**
+     * Swaps in {@code next} and marks it dirty as one step under the map's lock for {@code uuid}, which
+     * {@link #evict} also takes. A slot evicted meanwhile fails the swap, so the caller
+     * retries against the freshly loaded one instead of updating a copy nobody reads.
+     */
+    private boolean commit(UUID uuid, Slot slot, PlayerStats current, PlayerStats next) {
+        boolean[] swapped = new boolean[1];
+        dirty.compute(uuid, (ignored, pending) -> {
+            if (resident.get(uuid) != slot || !slot.compareAndSet(current, next)) {
+                return pending;
             }
+            swapped[0] = true;
+            return PlayerStats.newer(pending, next);
+        });
+        return swapped[0];
+    }
+
+    /**
+     * Newest known copy outside the resident map: a not yet compacted change wins over the file.
+     */
+    private PlayerStats lookup(UUID uuid) {
+        PlayerStats pending = dirty.get(uuid);
+        try {
+            return PlayerStats.newer(store.read(uuid), pending);
+        } catch (IOException | IllegalArgumentException ex) {
+            plugin.getLogger().warning("Не удалось прочитать статистику игрока " + uuid + ": " + ex.getMessage());
+            return pending;
+        }
+    }
+
+    private void scheduleEviction() {
+        if (resident.size() <= settings.residentPlayers() || !evictionScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                evictIdle();
+            } finally {
+                evictionScheduled.set(false);
+            }
+        });
+    }
+
+    /**
+     * Drops the least recently used offline records until a tenth of the limit is free again, so the
+     * pass runs once per many loads rather than on every one.
+     */
+    private void evictIdle() {
+        int limit = settings.residentPlayers();
+        int excess = resident.size() - (limit - limit / 10);
+        if (excess <= 0) {
+            return;
+        }
+        List<EvictionCandidate> candidates = new ArrayList<>();
+        for (Map.Entry<UUID, Slot> entry : resident.entrySet()) {
+            if (!online.contains(entry.getKey())) {
+                Slot slot = entry.getValue();
+                candidates.add(new EvictionCandidate(entry.getKey(), slot, slot.lastAccess));
+            }
+        }
+        candidates.sort(Comparator.comparingLong(EvictionCandidate::lastAccess));
+        for (EvictionCandidate candidate : candidates) {
+            if (excess <= 0) {
+                break;
+            }
+            if (evict(candidate.uuid(), candidate.slot())) {
+                excess--;
+            }
+        }
+    }
+
+    /**
+     * Drops a resident record unless it still has changes waiting for compaction. Runs under the same
+     * per-player lock as {@link #commit}, so no update can land on the slot while it goes.
+     */
+    private boolean evict(UUID uuid, Slot slot) {
+        boolean[] evicted = new boolean[1];
+        dirty.compute(uuid, (ignored, pending) -> {
+            if (pending == null && resident.remove(uuid, slot)) {
+                evicted[0] = true;
+            }
+            return pending;
+        });
+        return evicted[0];
+    }
+
+    private void load(Path directory) {
+        try {
+            Files.createDirectories(directory);
         } catch (IOException ex) {
             plugin.getLogger().severe("Не удалось создать папку статистики: " + ex.getMessage());
         }
-        File file = filePath.toFile();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            online.add(player.getUniqueId());
+        }
+        loadNameIndex();
+        migrateLegacy();
+        try {
+            journal.replay(this::applyJournalLine);
+        } catch (IOException ex) {
+            plugin.getLogger().severe("Не удалось прочитать журнал статистики: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Reads the name index, or rebuilds it from the record files when it is missing (first start with
+     * the index, or the file was deleted).
+     */
+    private void loadNameIndex() {
+        try {
+            if (!names.load()) {
+                store.scan((uuid, data) -> names.put(uuid, data.lastKnownName()));
+                plugin.getLogger().info("Индекс имён статистики перестроен: " + names.size() + " игрок(ов).");
+            }
+        } catch (IOException ex) {
+            plugin.getLogger().severe("Не удалось прочитать индекс имён статистики: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * One-time import of the old single-file player-stats.yml; the file is renamed afterwards.
+     */
+    private void migrateLegacy() {
+        File file = legacyFile.toFile();
         if (!file.exists()) {
             return;
         }
         YamlConfiguration yaml = YamlConfiguration.loadConfiguration(file);
         ConfigurationSection players = yaml.getConfigurationSection("players");
-        if (players == null) {
-            return;
-        }
-        for (String key : players.getKeys(false)) {
-            try {
-                UUID uuid = UUID.fromString(key);
-                ConfigurationSection section = players.getConfigurationSection(key);
-                if (section == null) {
-                    continue;
+        int imported = 0;
+        if (players != null) {
+            for (String key : players.getKeys(false)) {
+                try {
+                    UUID uuid = UUID.fromString(key);
+                    ConfigurationSection section = players.getConfigurationSection(key);
+                    if (section == null) {
+                        continue;
+                    }
+                    PlayerStats data = new PlayerStats(section.getString("name", "unknown"),
+                            section.getInt("chatViolations", 0),
+                            section.getInt("violationsSinceLastBan", 0),
+                            section.getInt("permanentBans", 0),
+                            section.getLong("lastPermaBanAt", 0L));
+                    store.write(uuid, data);
+                    names.put(uuid, data.lastKnownName());
+                    imported++;
+                } catch (IllegalArgumentException ignored) {
+                    plugin.getLogger().warning("Пропускаю некорректный UUID в player-stats.yml: " + key);
+                } catch (IOException ex) {
+                    plugin.getLogger().severe("Не удалось перенести статистику " + key + ": " + ex.getMessage());
+                    return;
                 }
-                PlayerStats data = new PlayerStats(section.getString("name", "unknown"));
-                data.chatViolations = section.getInt("chatViolations", 0);
-                data.violationsSinceLastBan = section.getInt("violationsSinceLastBan", 0);
-                data.permanentBans = section.getInt("permanentBans", 0);
-                data.lastPermaBanAt = section.getLong("lastPermaBanAt", 0L);
-                stats.put(uuid, data);
-            } catch (IllegalArgumentException ignored) {
-                plugin.getLogger().warning("Пропускаю некорректный UUID в player-stats.yml: " + key);
             }
         }
+        try {
+            Files.move(legacyFile, legacyFile.resolveSibling(legacyFile.getFileName() + ".migrated"),
+                    StandardCopyOption.REPLACE_EXISTING);
+            plugin.getLogger().info("Статистика " + imported + " игрок(ов) перенесена из player-stats.yml.");
+        } catch (IOException ex) {
+            plugin.getLogger().severe("Не удалось переименовать player-stats.yml: " + ex.getMessage());
+        }
+    }
+
+    private void applyJournalLine(String line) {
+        try {
+            PlayerStats.Parsed parsed = PlayerStats.parse(line);
+            dirty.merge(parsed.uuid(), parsed.stats(), PlayerStats::newer);
+            names.put(parsed.uuid(), parsed.stats().lastKnownName());
+        } catch (IllegalArgumentException ex) {
+            plugin.getLogger().warning("Пропускаю повреждённую строку журнала статистики: " + line);
+        }
     }
 
     private void scheduleSave() {
-        synchronized (this) {
-            if (saveScheduled) {
-                return;
-            }
-            saveScheduled = true;
+        if (!saveScheduled.compareAndSet(false, true)) {
+            return;
         }
         Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            synchronized (this) {
-                saveScheduled = false;
-                saveNow();
+            saveScheduled.set(false);
+            synchronized (fileLock) {
+                flushJournal();
             }
         });
     }
 
-    private void saveNow() {
-        File file = filePath.toFile();
-        YamlConfiguration yaml = new YamlConfiguration();
-        ConfigurationSection players = yaml.createSection("players");
-        for (Map.Entry<UUID, PlayerStats> entry : stats.entrySet()) {
-            ConfigurationSection section = players.createSection(entry.getKey().toString());
-            PlayerStats data = entry.getValue();
-            section.set("name", data.lastKnownName);
-            section.set("chatViolations", data.chatViolations);
-            section.set("violationsSinceLastBan", data.violationsSinceLastBan);
-            section.set("permanentBans", data.permanentBans);
-            section.set("lastPermaBanAt", data.lastPermaBanAt);
-        }
+    /**
+     * Writes queued journal lines and compacts once the journal is long enough. Called with
+     * {@code fileLock} held.
+     */
+    private void flushJournal() {
         try {
-            yaml.save(file);
+            journal.flush();
+            if (journal.lines() >= settings.journalCompactLines()) {
+                compact();
+            }
         } catch (IOException ex) {
-            plugin.getLogger().severe("Не удалось сохранить player-stats.yml: " + ex.getMessage());
+            plugin.getLogger().severe("Не удалось записать журнал статистики: " + ex.getMessage());
         }
     }
 
-    public record RecordResult(String playerName, int chatViolations, int permanentBans, boolean triggerPermaBan) {
-        public static RecordResult disabled() {
-            return new RecordResult("", 0, 0, false);
+    /**
+     * Flushes pending journal lines synchronously; used on disable and before a reload replaces this
+     * service.
+     */
+    public void shutdown() {
+        synchronized (fileLock) {
+            try {
+                journal.flush();
+                names.save();
+            } catch (IOException ex) {
+                plugin.getLogger().severe("Не удалось записать журнал статистики: " + ex.getMessage());
+            }
         }
     }
 
-    public record PlayerStatsView(UUID uuid, PlayerStats data) {
-        public String playerName() {
-            return data.lastKnownName;
+    /**
+     * Writes every dirty record to its file, then empties the journal. A record changed meanwhile stays
+     * dirty and its line is still queued for the new journal. A file is never overwritten with an older
+     * copy, in case the journal survived a crash after the previous compaction. The name index is saved
+     * before the journal goes, since replaying the journal is what restores names it missed.
+     */
+    private void compact() throws IOException {
+        for (Map.Entry<UUID, PlayerStats> entry : dirty.entrySet()) {
+            UUID uuid = entry.getKey();
+            PlayerStats data = entry.getValue();
+            PlayerStats onDisk = store.read(uuid);
+            if (PlayerStats.newer(onDisk, data) == data) {
+                store.write(uuid, data);
+            }
+            dirty.remove(uuid, data);
         }
+        names.save();
+        journal.truncate();
+    }
 
-        public int chatViolations() {
-            return data.chatViolations;
+    /**
+     * A resident record plus the time it was last used, read by the eviction pass.
+     */
+    private static final class Slot extends AtomicReference<PlayerStats> {
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        private Slot(PlayerStats initial) {
+            super(initial);
         }
 
-        public int permanentBans() {
-            return data.permanentBans;
+        private void touch() {
+            lastAccess = System.currentTimeMillis();
         }
     }
 
-    private static final class PlayerStats {
-        private String lastKnownName;
-        private int chatViolations;
-        private int violationsSinceLastBan;
-        private int permanentBans;
-        private long lastPermaBanAt;
+    private record EvictionCandidate(UUID uuid, Slot slot, long lastAccess) {
+    }
+
+    public record RecordResult(String playerName, int chatViolations, int permanentBans, boolean triggerPermaBan) {
+        public static RecordResult disabled() {
+            return new RecordResult("", 0, 0, false);
+        }
+    }
 
-        private PlayerStats(String name) {
-            this.lastKnownName = name;
+    public record PlayerStatsView(UUID uuid, String playerName, int chatViolations, int permanentBans) {
+        private PlayerStatsView(UUID uuid, PlayerStats data) {
+            this(uuid, data.lastKnownName(), data.chatViolations(), data.permanentBans());
         }
     }
 }
@@ -0,0 +1,74 @@
+package com.biggiko.antislurguard.stats;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+/**
+ * On-disk player stats, one small file per player under a two-character shard directory
+ * ({@code ab/ab12...-....stats}). The file system is the index: a lookup touches only that player's file,
+ * so nothing has to be read up front.
+ */
+final class PlayerStatsStore {
+
+    private final Path directory;
+
+    PlayerStatsStore(Path directory) {
+        this.directory = directory;
+    }
+
+    PlayerStats read(UUID uuid) throws IOException {
+        String line;
+        try {
+            line = Files.readString(file(uuid), StandardCharsets.UTF_8).trim();
+        } catch (NoSuchFileException ex) {
+            return null;
+        }
+        if (line.isEmpty()) {
+            return null;
+        }
+        return PlayerStats.parse(line).stats();
+    }
+
+    void write(UUID uuid, PlayerStats stats) throws IOException {
+        Path target = file(uuid);
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.writeString(temp, stats.toLine(uuid), StandardCharsets.UTF_8);
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads every record; only used to rebuild the name index when its file is missing.
+     */
+    void scan(BiConsumer<UUID, PlayerStats> consumer) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(directory, 2)) {
+            for (Path file : (Iterable<Path>) files.filter(p -> p.toString().endsWith(".stats"))::iterator) {
+                String line = Files.readString(file, StandardCharsets.UTF_8).trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                try {
+                    PlayerStats.Parsed parsed = PlayerStats.parse(line);
+                    consumer.accept(parsed.uuid(), parsed.stats());
+                } catch (IllegalArgumentException ignored) {
+                    // damaged file, read() reports it when the player is looked up
+                }
+            }
+        }
+    }
+
+    private Path file(UUID uuid) {
+        String id = uuid.toString();
+        return directory.resolve(id.substring(0, 2)).resolve(id + ".stats");
+    }
+}
@@ -0,0 +1,75 @@
+package com.biggiko.antislurguard.stats;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Append-only text journal next to the stats snapshot. Lines are queued from any thread and written by
+ * {@link #flush()}; callers serialize flush, replay and truncate on their own file lock.
+ */
+final class StatsJournal {
+
+    private final Path path;
+    private final Queue<String> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicLong lines = new AtomicLong();
+
+    StatsJournal(Path path) {
+        this.path = path;
+    }
+
+    void append(String line) {
+        pending.offer(line);
+    }
+
+    /**
+     * Lines written since the journal was last truncated, including replayed ones.
+     */
+    long lines() {
+        return lines.get();
+    }
+
+    void flush() throws IOException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            String line;
+            while ((line = pending.poll()) != null) {
+                writer.write(line);
+                writer.newLine();
+                lines.incrementAndGet();
+            }
+        }
+    }
+
+    void replay(Consumer<String> consumer) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    consumer.accept(line);
+                    lines.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    void truncate() throws IOException {
+        Files.write(path, new byte[0], StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        lines.set(0L);
+    }
+}